@@ -13,6 +13,7 @@ import com.zosh.repository.ProductRepository;
 import com.zosh.repository.UserRepository;
 import com.zosh.response.ApiResponse;
 import com.zosh.response.FunctionResponse;
+import com.zosh.utils.CartTotals;
 import lombok.RequiredArgsConstructor;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -109,6 +110,7 @@ public class AiChatBotServiceImpl implements AiChatBotService {
             case "getUserCart":
 //                Long userId = Long.parseLong(args.getString("userId"));
                 Cart cart = cartRepository.findByUserId(userId);
+                CartTotals.ensureFresh(cart);
                 System.out.println("cart: " + cart.getId());
                 res.setUserCart(cart);
                 break;
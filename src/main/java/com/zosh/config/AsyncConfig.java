@@ -0,0 +1,77 @@
+package com.zosh.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AsyncConfig {
+
+    // bounded on both threads and queue; a full pool rejects, and the
+    // caller treats a rejected part like one that timed out
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService productDetailExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(16, 16,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-detail-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // full and daily recommendation passes; they read the whole order
+    // history, so they get their own thread instead of a scheduler or
+    // startup thread, and a pass requested while one is queued is dropped
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService recommendationExecutor() {
+        return new ThreadPoolExecutor(1, 1,
+                0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recommendation-builder");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // tops up flash-sale token pools off the request threads, whose
+    // checkouts already hold a connection each; one queued top-up covers
+    // every pool, further requests are dropped
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService flashSaleExecutor() {
+        return new ThreadPoolExecutor(1, 1,
+                0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "flash-sale-top-up");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // wakes the outbox dispatcher after a commit; one queued wake-up is
+    // enough, the rest are dropped and the scheduled poll covers the gaps
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService outboxExecutor() {
+        return new ThreadPoolExecutor(1, 1,
+                0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "outbox-dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+}
@@ -0,0 +1,57 @@
+package com.zosh.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods with capped exponential backoff
+ * and full jitter, so two conflicting writers don't collide again in
+ * lockstep. It is ordered outside the transaction advice: every attempt
+ * starts a fresh transaction and re-reads the rows it lost on.
+ */
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public ConflictRetryInterceptor(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            // the caller's transaction is already spoiled, only it can retry
+            return invocation.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return proxyInvocation.invocableClone().proceed();
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                long cap = Math.min(maxDelayMs, baseDelayMs << (attempt - 1));
+                System.out.println("conflict in " + invocation.getMethod().getName()
+                        + ", retry " + attempt + ": " + e.getClass().getSimpleName());
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.zosh.config;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class RetryConfig {
+
+    // infrastructure role so the auto proxy creator that applies @Transactional
+    // picks it up; one step ahead of the transaction advice so it wraps it
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor conflictRetryAdvisor(
+            @Value("${conflict-retry.max-attempts:4}") int maxAttempts,
+            @Value("${conflict-retry.base-delay-ms:20}") long baseDelayMs,
+            @Value("${conflict-retry.max-delay-ms:200}") long maxDelayMs) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+                new ConflictRetryInterceptor(maxAttempts, baseDelayMs, maxDelayMs));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zosh.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MySQL has no sequences, so Hibernate emulates each one with a *_seq
+ * table holding next_val, and ddl-auto=update creates it starting at 1.
+ * Tables that used IDENTITY before already have rows with those ids, so
+ * the first blocks handed out would collide with them. Before anything
+ * can insert, every emulated sequence is moved past its table's max(id);
+ * on a database that is already past that this changes nothing.
+ *
+ * SQL Server uses real sequences, created by hand with START WITH above
+ * max(id), so it is left alone.
+ */
+@Component
+public class SequenceSeeder implements SmartInitializingSingleton {
+
+    // sequence table -> table whose ids it hands out
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("orders_seq", "orders");
+        SEQUENCES.put("order_item_seq", "order_item");
+        SEQUENCES.put("transactions_seq", "transactions");
+        SEQUENCES.put("stock_reservation_seq", "stock_reservation");
+        SEQUENCES.put("payment_order_seq", "payment_order");
+        SEQUENCES.put("outbox_event_seq", "outbox_event");
+        SEQUENCES.put("idempotency_record_seq", "idempotency_record");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // the entity manager factory runs the schema update, the *_seq tables exist once it is up
+    public SequenceSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (product == null || !product.toLowerCase().contains("mysql")) {
+            return;
+        }
+
+        for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + entry.getValue(), Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            // only ever moves forward, so replicas starting together can't push it back
+            int moved = jdbcTemplate.update(
+                    "UPDATE " + entry.getKey() + " SET next_val = ? WHERE next_val <= ?", maxId + 1, maxId);
+            if (moved > 0) {
+                System.out.println("moved " + entry.getKey() + " past existing id " + maxId);
+            }
+        }
+    }
+}
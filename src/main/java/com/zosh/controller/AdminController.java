@@ -1,10 +1,15 @@
 package com.zosh.controller;
 
 import com.zosh.domain.AccountStatus;
+import com.zosh.exception.ProductException;
 import com.zosh.exception.SellerException;
+import com.zosh.model.FlashSale;
 import com.zosh.model.HomeCategory;
 import com.zosh.model.Seller;
+import com.zosh.response.ApiResponse;
+import com.zosh.service.FlashSaleService;
 import com.zosh.service.HomeCategoryService;
+import com.zosh.service.ProductSearchService;
 import com.zosh.service.SellerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +24,8 @@ public class AdminController {
 
     private final SellerService sellerService;
     private final HomeCategoryService homeCategoryService;
+    private final ProductSearchService productSearchService;
+    private final FlashSaleService flashSaleService;
 
 
     @PatchMapping("/seller/{id}/status/{status}")
@@ -49,4 +56,36 @@ public class AdminController {
         return ResponseEntity.ok(updatedCategory);
 
     }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<ApiResponse> rebuildSearchIndex() {
+
+        int indexed = productSearchService.rebuildIndex();
+        ApiResponse res = new ApiResponse("search index rebuilt with " + indexed + " products", true);
+        return ResponseEntity.ok(res);
+
+    }
+
+    @GetMapping("/flash-sales")
+    public ResponseEntity<List<FlashSale>> getFlashSales() {
+
+        return ResponseEntity.ok(flashSaleService.getFlashSales());
+
+    }
+
+    @PostMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSale> startFlashSale(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Integer blockSize) throws ProductException {
+
+        return ResponseEntity.ok(flashSaleService.startFlashSale(productId, blockSize));
+
+    }
+
+    @DeleteMapping("/flash-sales/{productId}")
+    public ResponseEntity<FlashSale> endFlashSale(@PathVariable Long productId) throws ProductException {
+
+        return ResponseEntity.ok(flashSaleService.endFlashSale(productId));
+
+    }
 }
@@ -9,13 +9,18 @@ import com.zosh.repository.VerificationCodeRepository;
 import com.zosh.request.ResetPasswordRequest;
 import com.zosh.request.SignupRequest;
 import com.zosh.service.AuthService;
+import com.zosh.service.GuestCartService;
+import com.zosh.service.UserService;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,6 +32,8 @@ import com.zosh.response.AuthResponse;
 
 import jakarta.validation.Valid;
 
+import java.time.Duration;
+
 
 @RestController
 @RequestMapping("/auth")
@@ -34,6 +41,8 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final AuthService authService;
+    private final UserService userService;
+    private final GuestCartService guestCartService;
 
 
     @PostMapping("/sent/login-signup-otp")
@@ -50,7 +59,9 @@ public class AuthController {
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> createUserHandler(
             @Valid
-            @RequestBody SignupRequest req)
+            @RequestBody SignupRequest req,
+            @RequestHeader(value = GuestCartController.HEADER, required = false) String guestCartHeader,
+            @CookieValue(value = GuestCartController.COOKIE, required = false) String guestCartCookie)
             throws SellerException {
 
 
@@ -60,15 +71,43 @@ public class AuthController {
         authResponse.setMessage("Register Success");
         authResponse.setRole(USER_ROLE.ROLE_CUSTOMER);
 
-        return new ResponseEntity<>(authResponse, HttpStatus.OK);
+        return withGuestCartMerged(ResponseEntity.ok(), req.getEmail(),
+                GuestCartController.tokenOf(guestCartHeader, guestCartCookie), authResponse);
 
     }
 
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> signin(@RequestBody LoginRequest loginRequest) throws SellerException {
+    public ResponseEntity<AuthResponse> signin(
+            @RequestBody LoginRequest loginRequest,
+            @RequestHeader(value = GuestCartController.HEADER, required = false) String guestCartHeader,
+            @CookieValue(value = GuestCartController.COOKIE, required = false) String guestCartCookie)
+            throws SellerException {
 
         AuthResponse authResponse = authService.signin(loginRequest);
-        return new ResponseEntity<>(authResponse, HttpStatus.OK);
+        if (authResponse.getRole() != USER_ROLE.ROLE_CUSTOMER) {
+            return new ResponseEntity<>(authResponse, HttpStatus.OK);
+        }
+        return withGuestCartMerged(ResponseEntity.ok(), loginRequest.getEmail(),
+                GuestCartController.tokenOf(guestCartHeader, guestCartCookie), authResponse);
+    }
+
+    // moves the anonymous cart into the user's cart in one batch, a failed
+    // merge leaves the guest cart in place and never fails the login
+    private ResponseEntity<AuthResponse> withGuestCartMerged(ResponseEntity.BodyBuilder response,
+                                                             String email,
+                                                             String guestCart,
+                                                             AuthResponse authResponse) {
+        if (guestCart == null || guestCart.isBlank()) {
+            return response.body(authResponse);
+        }
+        try {
+            guestCartService.mergeIntoUserCart(userService.findUserByEmail(email), guestCart);
+            response.header(HttpHeaders.SET_COOKIE,
+                    GuestCartController.cookie("", Duration.ZERO).toString());
+        } catch (Exception e) {
+            System.out.println("guest cart merge failed for " + email + ": " + e.getMessage());
+        }
+        return response.body(authResponse);
     }
 
 
@@ -8,6 +8,7 @@ import com.zosh.model.CartItem;
 import com.zosh.model.Product;
 import com.zosh.model.User;
 import com.zosh.request.AddItemRequest;
+import com.zosh.request.CartBatchRequest;
 import com.zosh.response.ApiResponse;
 import com.zosh.service.CartItemService;
 import com.zosh.service.CartService;
@@ -62,6 +63,18 @@ public class CartController {
 		
 	}
 
+	@PostMapping("/batch")
+	public ResponseEntity<Cart> applyCartOperations(@RequestBody CartBatchRequest req,
+													@RequestHeader("Authorization") String jwt)
+			throws UserException, ProductException, CartItemException {
+
+		User user=userService.findUserProfileByJwt(jwt);
+
+		Cart cart=cartService.applyOperations(user, req.getOperations());
+
+		return new ResponseEntity<>(cart,HttpStatus.OK);
+	}
+
 	@DeleteMapping("/item/{cartItemId}")
 	public ResponseEntity<ApiResponse>deleteCartItemHandler(
 			@PathVariable Long cartItemId,
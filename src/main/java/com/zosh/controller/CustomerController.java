@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,10 +22,13 @@ public class CustomerController {
     private final HomeService homeService;
 
     @GetMapping("/home-page")
-    public ResponseEntity<Home> getHomePageData() {
-//        Home homePageData = homeService.getHomePageData();
-//        return new ResponseEntity<>(homePageData, HttpStatus.ACCEPTED);
-        return null;
+    public ResponseEntity<Home> getHomePageData(WebRequest request) {
+        // answered from two aggregate queries when the client is up to date
+        if (request.checkNotModified(homeService.homePageETag())) {
+            return null;
+        }
+        Home homePageData = homeService.creatHomePageData(homeCategoryService.getAllCategories());
+        return new ResponseEntity<>(homePageData, HttpStatus.OK);
     }
 
     @PostMapping("/home/categories")
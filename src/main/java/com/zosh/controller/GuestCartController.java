@@ -0,0 +1,77 @@
+package com.zosh.controller;
+
+import com.zosh.exception.CartItemException;
+import com.zosh.exception.ProductException;
+import com.zosh.request.AddItemRequest;
+import com.zosh.response.GuestCartResponse;
+import com.zosh.service.GuestCartService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+// outside /api on purpose, anonymous visitors use it
+@RestController
+@RequestMapping("/guest-cart")
+@RequiredArgsConstructor
+public class GuestCartController {
+
+    public static final String COOKIE = "guest_cart";
+    public static final String HEADER = "X-Guest-Cart";
+
+    private final GuestCartService guestCartService;
+
+    @GetMapping
+    public ResponseEntity<GuestCartResponse> getGuestCart(
+            @RequestHeader(value = HEADER, required = false) String header,
+            @CookieValue(value = COOKIE, required = false) String cookie) {
+
+        return respond(guestCartService.getCart(tokenOf(header, cookie)));
+    }
+
+    @PutMapping("/add")
+    public ResponseEntity<GuestCartResponse> addItem(
+            @RequestBody AddItemRequest req,
+            @RequestHeader(value = HEADER, required = false) String header,
+            @CookieValue(value = COOKIE, required = false) String cookie)
+            throws ProductException, CartItemException {
+
+        return respond(guestCartService.addItem(tokenOf(header, cookie),
+                req.getProductId(), req.getSize(), req.getQuantity()));
+    }
+
+    @PutMapping("/item")
+    public ResponseEntity<GuestCartResponse> updateItem(
+            @RequestBody AddItemRequest req,
+            @RequestHeader(value = HEADER, required = false) String header,
+            @CookieValue(value = COOKIE, required = false) String cookie) {
+
+        return respond(guestCartService.updateItem(tokenOf(header, cookie),
+                req.getProductId(), req.getSize(), req.getQuantity()));
+    }
+
+    public static String tokenOf(String header, String cookie) {
+        return header != null && !header.isBlank() ? header : cookie;
+    }
+
+    public static ResponseCookie cookie(String token, Duration maxAge) {
+        // the storefront is on another site, so the cookie has to be SameSite=None
+        return ResponseCookie.from(COOKIE, token)
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("None")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private ResponseEntity<GuestCartResponse> respond(GuestCartResponse res) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie(res.getToken(), Duration.ofDays(30)).toString())
+                .header(HEADER, res.getToken())
+                .body(res);
+    }
+}
@@ -4,11 +4,13 @@ import com.razorpay.PaymentLink;
 import com.razorpay.RazorpayException;
 import com.stripe.exception.StripeException;
 import com.zosh.domain.PaymentMethod;
+import com.zosh.dto.OrderSummaryDto;
 import com.zosh.exception.OrderException;
 import com.zosh.exception.SellerException;
 import com.zosh.exception.UserException;
 import com.zosh.model.*;
 import com.zosh.repository.PaymentOrderRepository;
+import com.zosh.response.CursorPage;
 import com.zosh.response.PaymentLinkResponse;
 import com.zosh.service.*;
 import lombok.RequiredArgsConstructor;
@@ -18,7 +20,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Set;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -33,20 +34,39 @@ public class OrderController {
 	private final PaymentOrderRepository paymentOrderRepository;
 	private final SellerReportService sellerReportService;
 	private final SellerService sellerService;
+	private final IdempotencyService idempotencyService;
 
 	
 	@PostMapping()
 	public ResponseEntity<PaymentLinkResponse> createOrderHandler(
 			@RequestBody Address spippingAddress,
 			@RequestParam PaymentMethod paymentMethod,
-			@RequestHeader("Authorization")String jwt)
-            throws UserException, RazorpayException, StripeException {
+			@RequestHeader("Authorization")String jwt,
+			@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey)
+            throws Exception {
 		
 		User user=userService.findUserProfileByJwt(jwt);
-		Cart cart=cartService.findUserCart(user);
-		Set<Order> orders =orderService.createOrder(user, spippingAddress,cart);
 
-		PaymentOrder paymentOrder=paymentService.createOrder(user,orders);
+		// a retried or double clicked checkout gets the first payment link back
+		return idempotencyService.execute("checkout", user.getId(), idempotencyKey,
+				List.of(spippingAddress, paymentMethod), PaymentLinkResponse.class,
+				progress -> checkout(user, spippingAddress, paymentMethod, progress));
+	}
+
+	private ResponseEntity<PaymentLinkResponse> checkout(User user,
+														 Address spippingAddress,
+														 PaymentMethod paymentMethod,
+														 IdempotencyService.Progress progress)
+			throws OrderException, RazorpayException, StripeException {
+		// a retry after the payment link failed reuses the orders of the first attempt
+		PaymentOrder paymentOrder = progress.checkpoint() == null ? null
+				: paymentOrderRepository.findById(Long.valueOf(progress.checkpoint())).orElse(null);
+
+		if (paymentOrder == null) {
+			Cart cart=cartService.findUserCart(user);
+			paymentOrder=paymentService.createOrder(user, spippingAddress,cart);
+			progress.save(String.valueOf(paymentOrder.getId()));
+		}
 
 		PaymentLinkResponse res = new PaymentLinkResponse();
 
@@ -74,12 +94,14 @@ public class OrderController {
 	}
 	
 	@GetMapping("/user")
-	public ResponseEntity< List<Order>> usersOrderHistoryHandler(
+	public ResponseEntity<CursorPage<OrderSummaryDto>> usersOrderHistoryHandler(
 			@RequestHeader("Authorization")
-	String jwt) throws UserException{
+	String jwt,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size) throws UserException, OrderException {
 		
 		User user=userService.findUserProfileByJwt(jwt);
-		List<Order> orders=orderService.usersOrderHistory(user.getId());
+		CursorPage<OrderSummaryDto> orders=orderService.usersOrderHistory(user.getId(), cursor, size);
 		return new ResponseEntity<>(orders,HttpStatus.ACCEPTED);
 	}
 	
@@ -5,8 +5,6 @@ import com.stripe.exception.StripeException;
 import com.zosh.domain.PaymentMethod;
 import com.zosh.exception.UserException;
 import com.zosh.model.*;
-import com.zosh.repository.CartItemRepository;
-import com.zosh.repository.CartRepository;
 import com.zosh.response.ApiResponse;
 import com.zosh.response.PaymentLinkResponse;
 import com.zosh.service.*;
@@ -27,11 +25,7 @@ public class PaymentController {
 
     private final UserService userService;
     private final PaymentService paymentService;
-    private final TransactionService transactionService;
-    private final SellerReportService sellerReportService;
-    private final SellerService sellerService;
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    private final IdempotencyService idempotencyService;
 
 
     @PostMapping("/api/payment/{paymentMethod}/order/{orderId}")
@@ -65,39 +59,31 @@ public class PaymentController {
     public ResponseEntity<ApiResponse> paymentSuccessHandler(
             @PathVariable String paymentId,
             @RequestParam String paymentLinkId,
-            @RequestHeader("Authorization") String jwt) throws Exception {
+            @RequestHeader("Authorization") String jwt,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) throws Exception {
 
         User user = userService.findUserProfileByJwt(jwt);
 
-        PaymentLinkResponse paymentResponse;
+        // reloading the callback page must not book the transactions and seller report twice,
+        // so the payment id is the key when the client doesn't send one
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : paymentId;
+        return idempotencyService.execute("payment-callback", user.getId(), key,
+                List.of(paymentId, paymentLinkId), ApiResponse.class,
+                progress -> completePayment(paymentId, paymentLinkId));
+    }
 
+    private ResponseEntity<ApiResponse> completePayment(String paymentId,
+                                                        String paymentLinkId) throws Exception {
         PaymentOrder paymentOrder= paymentService
                 .getPaymentOrderByPaymentId(paymentLinkId);
 
-        boolean paymentSuccess = paymentService.ProceedPaymentOrder(
+        // seller transactions and reports, the email and the cart are handled
+        // by the outbox dispatcher once the payment state is committed
+        paymentService.ProceedPaymentOrder(
                 paymentOrder,
                 paymentId,
                 paymentLinkId
         );
-        if(paymentSuccess){
-            for(Order order:paymentOrder.getOrders()){
-                transactionService.createTransaction(order);
-                Seller seller=sellerService.getSellerById(order.getSellerId());
-                SellerReport report=sellerReportService.getSellerReport(seller);
-                report.setTotalOrders(report.getTotalOrders()+1);
-                report.setTotalEarnings(report.getTotalEarnings()+order.getTotalSellingPrice());
-                report.setTotalSales(report.getTotalSales()+order.getOrderItems().size());
-                sellerReportService.updateSellerReport(report);
-            }
-            Cart cart=cartRepository.findByUserId(user.getId());
-            cart.setCouponPrice(0);
-            cart.setCouponCode(null);
-//        Set<CartItem> items=cart.getCartItems();
-//        cartItemRepository.deleteAll(items);
-//        cart.setCartItems(new HashSet<>());
-            cartRepository.save(cart);
-
-        }
 
         ApiResponse res = new ApiResponse();
         res.setMessage("Payment successful");
@@ -1,16 +1,22 @@
 package com.zosh.controller;
 
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.VersionStampView;
 import com.zosh.exception.*;
 import com.zosh.model.*;
 import com.zosh.request.CreateProductRequest;
+import com.zosh.response.CursorPage;
+import com.zosh.response.FacetedProductPage;
+import com.zosh.response.ProductDetailResponse;
 import com.zosh.service.*;
+import com.zosh.utils.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -25,39 +31,133 @@ public class ProductController {
 
     private final SellerService sellerService;
 
+    private final ProductFacetService productFacetService;
+
+    private final ProductSuggestService productSuggestService;
+
+    private final ProductDetailService productDetailService;
+
+    private final ProductStatsService productStatsService;
+
 
 
     @GetMapping("/{productId}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long productId) throws ProductException {
+    public ResponseEntity<Product> getProductById(@PathVariable Long productId,
+                                                  WebRequest request) throws ProductException {
+
+            // the version lookup is a single indexed row, the entity is only loaded on a miss
+            VersionStampView stamp = productService.findProductVersion(productId);
+            if (stamp.getCount() == 0) {
+                throw new ProductException("product not found");
+            }
+            // only existing products are counted, a 304 is still a view
+            productStatsService.recordView(productId);
+            if (request.checkNotModified(
+                    ETags.of("product", productId, stamp.getVersion()),
+                    ETags.lastModified(stamp.getUpdatedAt()))) {
+                return null;
+            }
 
             Product product = productService.findProductById(productId);
             return new ResponseEntity<>(product, HttpStatus.OK);
 
     }
 
+    @GetMapping("/{productId}/detail")
+    public ResponseEntity<ProductDetailResponse> getProductDetail(
+            @PathVariable Long productId,
+            @RequestHeader(value = "Authorization", required = false) String jwt) throws ProductException {
+        ProductDetailResponse detail = productDetailService.getProductDetail(productId, jwt);
+        productStatsService.recordView(productId);
+        return new ResponseEntity<>(detail, HttpStatus.OK);
+    }
+
+    @GetMapping("/{productId}/bought-together")
+    public ResponseEntity<List<ProductCardDto>> boughtTogether(@PathVariable Long productId,
+                                                               @RequestParam(defaultValue = "6") Integer limit) {
+        return new ResponseEntity<>(productService.boughtTogether(productId, limit), HttpStatus.OK);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProduct(@RequestParam(required = false) String query) {
-        List<Product> products = productService.searchProduct(query);
+    public ResponseEntity<Page<ProductCardDto>> searchProduct(@RequestParam(required = false) String query,
+                                                              @RequestParam(defaultValue = "0") Integer pageNumber) {
+        Page<ProductCardDto> products = productService.searchProduct(query, pageNumber);
         return new ResponseEntity<>(products, HttpStatus.OK);
     }
 
+    @GetMapping("/new-arrivals")
+    public ResponseEntity<List<ProductCardDto>> newArrivals(@RequestParam(required = false) String category,
+                                                            @RequestParam(defaultValue = "10") Integer limit) {
+        return new ResponseEntity<>(productService.recentlyAddedProduct(category, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String q,
+                                                @RequestParam(defaultValue = "8") int limit) {
+        return new ResponseEntity<>(productSuggestService.suggest(q, limit), HttpStatus.OK);
+    }
+
     @GetMapping
-    @Cacheable(value = "products", key = "#category + ':' + #pageNumber")
-    public ResponseEntity<Page<Product>> getAllProducts(@RequestParam(required = false) String category,
-                                                        @RequestParam(required = false) String brand,
-                                                        @RequestParam(required = false) String color,
-                                                        @RequestParam(required = false) String size,
-                                                        @RequestParam(required = false) Integer minPrice,
-                                                        @RequestParam(required = false) Integer maxPrice,
-                                                        @RequestParam(required = false) Integer minDiscount,
-                                                        @RequestParam(required = false) String sort,
-                                                        @RequestParam(required = false) String stock,
-                                                        @RequestParam(defaultValue = "0") Integer pageNumber) {
+    public ResponseEntity<Page<ProductCardDto>> getAllProducts(@RequestParam(required = false) String category,
+                                                               @RequestParam(required = false) String brand,
+                                                               @RequestParam(required = false) String color,
+                                                               @RequestParam(required = false) String size,
+                                                               @RequestParam(required = false) Integer minPrice,
+                                                               @RequestParam(required = false) Integer maxPrice,
+                                                               @RequestParam(required = false) Integer minDiscount,
+                                                               @RequestParam(required = false) Double minRating,
+                                                               @RequestParam(required = false) String sort,
+                                                               @RequestParam(required = false) String stock,
+                                                               @RequestParam(defaultValue = "0") Integer pageNumber) {
         System.out.println("color p -------- "+pageNumber);
+        Page<ProductCardDto> products = productService.getAllProduct(category,brand,
+                color, size, minPrice,
+                maxPrice, minDiscount, minRating, sort,
+                stock, pageNumber);
+        // a matching If-None-Match turns this into a 304 without a body
+        return ResponseEntity.ok().eTag(ETags.forPage(products)).body(products);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductCardDto>> scrollProducts(@RequestParam(required = false) String category,
+                                                                     @RequestParam(required = false) String brand,
+                                                                     @RequestParam(required = false) String color,
+                                                                     @RequestParam(required = false) String size,
+                                                                     @RequestParam(required = false) Integer minPrice,
+                                                                     @RequestParam(required = false) Integer maxPrice,
+                                                                     @RequestParam(required = false) Integer minDiscount,
+                                                                     @RequestParam(required = false) Double minRating,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) String stock,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "false") boolean includeTotal)
+            throws ProductException {
         return new ResponseEntity<>(
-                productService.getAllProduct(category,brand,
+                productService.getAllProductByCursor(category, brand,
                         color, size, minPrice,
-                        maxPrice, minDiscount, sort,
-                        stock, pageNumber), HttpStatus.OK);
+                        maxPrice, minDiscount, minRating, sort,
+                        stock, cursor, includeTotal), HttpStatus.OK);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedProductPage> getFacetedProducts(@RequestParam(required = false) String category,
+                                                                 @RequestParam(required = false) String brand,
+                                                                 @RequestParam(required = false) String color,
+                                                                 @RequestParam(required = false) String size,
+                                                                 @RequestParam(required = false) Integer minPrice,
+                                                                 @RequestParam(required = false) Integer maxPrice,
+                                                                 @RequestParam(required = false) Integer minDiscount,
+                                                                 @RequestParam(required = false) Double minRating,
+                                                                 @RequestParam(required = false) String sort,
+                                                                 @RequestParam(required = false) String stock,
+                                                                 @RequestParam(defaultValue = "0") Integer pageNumber) {
+        Page<ProductCardDto> products = productService.getAllProduct(category, brand,
+                color, size, minPrice,
+                maxPrice, minDiscount, minRating, sort,
+                stock, pageNumber);
+        FacetedProductPage res = new FacetedProductPage(products,
+                productFacetService.countFacets(category, color, size,
+                        minPrice, maxPrice, minDiscount, minRating, stock));
+        return new ResponseEntity<>(res, HttpStatus.OK);
     }
 }
@@ -1,19 +1,25 @@
 package com.zosh.controller;
 
 import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderSummaryDto;
 import com.zosh.exception.OrderException;
 import com.zosh.exception.SellerException;
 import com.zosh.model.Order;
 import com.zosh.model.Seller;
 import com.zosh.response.ApiResponse;
+import com.zosh.response.CursorPage;
 import com.zosh.service.OrderService;
 import com.zosh.service.SellerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/seller/orders")
@@ -34,15 +40,30 @@ public class SellerOrderController {
     }
 
     @GetMapping()
-    public ResponseEntity<List<Order>> getAllOrdersHandler(
-            @RequestHeader("Authorization") String jwt
-    ) throws SellerException {
+    public ResponseEntity<CursorPage<OrderSummaryDto>> getAllOrdersHandler(
+            @RequestHeader("Authorization") String jwt,
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) throws SellerException, OrderException {
         Seller seller=sellerService.getSellerProfile(jwt);
-        List<Order> orders=orderService.getShopsOrders(seller.getId());
+        CursorPage<OrderSummaryDto> orders=orderService.getSellerInbox(seller.getId(),
+                status, paymentStatus, from, to, cursor, size);
 
         return new ResponseEntity<>(orders, HttpStatus.ACCEPTED);
     }
 
+    @GetMapping("/counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getOrderCountsHandler(
+            @RequestHeader("Authorization") String jwt
+    ) throws SellerException {
+        Seller seller=sellerService.getSellerProfile(jwt);
+        return new ResponseEntity<>(orderService.getSellerOrderCounts(seller.getId()), HttpStatus.OK);
+    }
+
     @PatchMapping("/{orderId}/status/{orderStatus}")
     public ResponseEntity<Order> updateOrderHandler(
             @RequestHeader("Authorization") String jwt,
@@ -4,18 +4,23 @@ import com.zosh.exception.CategoryNotFoundException;
 import com.zosh.exception.ProductException;
 import com.zosh.exception.SellerException;
 import com.zosh.exception.UserException;
+import com.zosh.dto.ProductImportJob;
 import com.zosh.model.Product;
 import com.zosh.model.Seller;
 import com.zosh.request.CreateProductRequest;
+import com.zosh.service.InventoryService;
+import com.zosh.service.ProductImportService;
 import com.zosh.service.ProductService;
 import com.zosh.service.SellerService;
 import com.zosh.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -26,6 +31,8 @@ public class SellerProductController {
     private final ProductService productService;
     private final SellerService sellerService;
     private final UserService userService;
+    private final ProductImportService productImportService;
+    private final InventoryService inventoryService;
 
 
     @GetMapping()
@@ -84,5 +91,63 @@ public class SellerProductController {
         }
     }
 
+    @PatchMapping("/{productId}/quantity")
+    public ResponseEntity<Product> restockProduct(@PathVariable Long productId,
+                                                  @RequestParam int delta,
+                                                  @RequestHeader("Authorization") String jwt)
+            throws ProductException, SellerException {
+
+        Seller seller = sellerService.getSellerProfile(jwt);
+
+        // /sellers/** is outside the jwt filter, only the owner may move its stock
+        Product product = productService.findProductById(productId);
+        if (product.getSeller() == null || !product.getSeller().getId().equals(seller.getId())) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(inventoryService.restock(productId, delta), HttpStatus.OK);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ProductImportJob> importProducts(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Integer chunkSize,
+            @RequestHeader("Authorization") String jwt)
+            throws ProductException, SellerException, IOException {
+
+        Seller seller = sellerService.getSellerProfile(jwt);
+
+        ProductImportJob job = productImportService.importProducts(
+                seller,
+                request.getInputStream(),
+                format != null ? format : formatOf(request.getContentType()),
+                chunkSize
+        );
+        return new ResponseEntity<>(job, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<List<ProductImportJob>> getImportJobs(
+            @RequestHeader("Authorization") String jwt) throws SellerException {
+
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return new ResponseEntity<>(productImportService.getJobs(seller.getId()), HttpStatus.OK);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ProductImportJob> getImportJob(
+            @PathVariable String jobId,
+            @RequestHeader("Authorization") String jwt) throws ProductException, SellerException {
+
+        Seller seller = sellerService.getSellerProfile(jwt);
+        return new ResponseEntity<>(productImportService.getJob(jobId, seller.getId()), HttpStatus.OK);
+    }
+
+    private String formatOf(String contentType) {
+        if (contentType != null && contentType.toLowerCase().contains("csv")) {
+            return "csv";
+        }
+        return "ndjson";
+    }
 
 }
@@ -0,0 +1,7 @@
+package com.zosh.domain;
+
+public enum CartOperationType {
+    ADD,
+    UPDATE,
+    REMOVE
+}
@@ -0,0 +1,8 @@
+package com.zosh.domain;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    // failed after saving a checkpoint, the next request with the key resumes it
+    INTERRUPTED,
+    COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.zosh.domain;
+
+public enum OutboxEventType {
+    ORDER_PAID,
+    PAYMENT_CONFIRMATION_EMAIL,
+    CART_CLEAR
+}
@@ -0,0 +1,8 @@
+package com.zosh.domain;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    STOCK_CHANGED
+}
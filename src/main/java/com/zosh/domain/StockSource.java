@@ -0,0 +1,6 @@
+package com.zosh.domain;
+
+public enum StockSource {
+    PRODUCT,
+    FLASH_SALE
+}
@@ -0,0 +1,21 @@
+package com.zosh.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class GuestCartItemDto {
+
+    private ProductCardDto product;
+
+    private String size;
+
+    private int quantity;
+
+    // current prices times quantity, never taken from the token
+    private int mrpPrice;
+
+    private int sellingPrice;
+
+}
@@ -0,0 +1,44 @@
+package com.zosh.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class OrderLineDto {
+
+    private Long id;
+
+    @JsonIgnore
+    private Long orderId;
+
+    @JsonIgnore
+    private Long productId;
+
+    private String size;
+
+    private int quantity;
+
+    private Integer mrpPrice;
+
+    private Integer sellingPrice;
+
+    private ProductCardDto product;
+
+    public OrderLineDto(Long id,
+                        Long orderId,
+                        Long productId,
+                        String size,
+                        int quantity,
+                        Integer mrpPrice,
+                        Integer sellingPrice) {
+        this.id = id;
+        this.orderId = orderId;
+        this.productId = productId;
+        this.size = size;
+        this.quantity = quantity;
+        this.mrpPrice = mrpPrice;
+        this.sellingPrice = sellingPrice;
+    }
+}
@@ -0,0 +1,68 @@
+package com.zosh.dto;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One order in a history page. Selected by a constructor query, so the
+ * user, address and payment details of the entity are never loaded;
+ * the lines are attached afterwards by OrderMapper.
+ */
+@Data
+@NoArgsConstructor
+public class OrderSummaryDto {
+
+    private Long id;
+
+    private String orderId;
+
+    private Long sellerId;
+
+    private OrderStatus orderStatus;
+
+    private PaymentStatus paymentStatus;
+
+    private double totalMrpPrice;
+
+    private Integer totalSellingPrice;
+
+    private Integer discount;
+
+    private int totalItem;
+
+    private LocalDateTime orderDate;
+
+    private LocalDateTime deliverDate;
+
+    private List<OrderLineDto> orderItems = new ArrayList<>();
+
+    public OrderSummaryDto(Long id,
+                           String orderId,
+                           Long sellerId,
+                           OrderStatus orderStatus,
+                           PaymentStatus paymentStatus,
+                           double totalMrpPrice,
+                           Integer totalSellingPrice,
+                           Integer discount,
+                           int totalItem,
+                           LocalDateTime orderDate,
+                           LocalDateTime deliverDate) {
+        this.id = id;
+        this.orderId = orderId;
+        this.sellerId = sellerId;
+        this.orderStatus = orderStatus;
+        this.paymentStatus = paymentStatus;
+        this.totalMrpPrice = totalMrpPrice;
+        this.totalSellingPrice = totalSellingPrice;
+        this.discount = discount;
+        this.totalItem = totalItem;
+        this.orderDate = orderDate;
+        this.deliverDate = deliverDate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.zosh.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a listing card needs, nothing more. Built straight from a
+ * constructor query so the seller, reviews and category graph of the
+ * entity are never loaded for catalog pages.
+ */
+@Data
+@NoArgsConstructor
+public class ProductCardDto {
+
+    private Long id;
+
+    private String title;
+
+    private int mrpPrice;
+
+    private int sellingPrice;
+
+    private int discountPercent;
+
+    private String color;
+
+    private String sizes;
+
+    private int numRatings;
+
+    private double averageRating;
+
+    private boolean inStock;
+
+    private LocalDateTime createdAt;
+
+    private String categoryId;
+
+    private long version;
+
+    private List<String> images = new ArrayList<>();
+
+    public ProductCardDto(Long id,
+                          String title,
+                          int mrpPrice,
+                          int sellingPrice,
+                          int discountPercent,
+                          String color,
+                          String sizes,
+                          int numRatings,
+                          double averageRating,
+                          boolean inStock,
+                          LocalDateTime createdAt,
+                          String categoryId,
+                          long version) {
+        this.id = id;
+        this.title = title;
+        this.mrpPrice = mrpPrice;
+        this.sellingPrice = sellingPrice;
+        this.discountPercent = discountPercent;
+        this.color = color;
+        this.sizes = sizes;
+        this.numRatings = numRatings;
+        this.averageRating = averageRating;
+        this.inStock = inStock;
+        this.createdAt = createdAt;
+        this.categoryId = categoryId;
+        this.version = version;
+    }
+}
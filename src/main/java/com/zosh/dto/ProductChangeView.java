@@ -0,0 +1,13 @@
+package com.zosh.dto;
+
+import java.time.LocalDateTime;
+
+public interface ProductChangeView {
+
+    Long getId();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+}
@@ -37,5 +37,9 @@ public class ProductDto {
 
     private String Sizes;
 
+    private boolean inStock;
+
+    private String categoryId;
+
 
 }
@@ -0,0 +1,70 @@
+package com.zosh.dto;
+
+import com.zosh.domain.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress of one bulk import. Written by the importing request thread,
+ * read by status polls, hence the volatile counters.
+ */
+@Getter
+public class ProductImportJob {
+
+    private final String id;
+
+    private final Long sellerId;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile ImportJobStatus status = ImportJobStatus.RUNNING;
+
+    private volatile int processedRows;
+
+    private volatile int importedRows;
+
+    private volatile int failedRows;
+
+    private volatile String message;
+
+    private final List<RowError> errors = new CopyOnWriteArrayList<>();
+
+    public ProductImportJob(String id, Long sellerId) {
+        this.id = id;
+        this.sellerId = sellerId;
+    }
+
+    public void rowsProcessed(int imported, int failed) {
+        processedRows += imported + failed;
+        importedRows += imported;
+        failedRows += failed;
+    }
+
+    public void addError(int line, String error, int maxErrors) {
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, error));
+        }
+    }
+
+    public void finish(ImportJobStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;
+        private String error;
+    }
+}
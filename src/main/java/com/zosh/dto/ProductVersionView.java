@@ -0,0 +1,9 @@
+package com.zosh.dto;
+
+public interface ProductVersionView {
+
+    Long getId();
+
+    Long getVersion();
+
+}
@@ -0,0 +1,18 @@
+package com.zosh.dto;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class RatingSummary {
+
+    private int numRatings;
+
+    private double averageRating;
+
+    // star (1-5) -> number of ratings
+    private Map<Integer, Integer> histogram = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,9 @@
+package com.zosh.dto;
+
+public interface RecentProductView {
+
+    Long getId();
+
+    String getCategoryId();
+
+}
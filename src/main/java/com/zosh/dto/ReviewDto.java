@@ -0,0 +1,26 @@
+package com.zosh.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ReviewDto {
+
+    private Long id;
+
+    private String reviewText;
+
+    private double rating;
+
+    private List<String> productImages = new ArrayList<>();
+
+    private Long userId;
+
+    private String userFullName;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,16 @@
+package com.zosh.dto;
+
+import lombok.Data;
+
+@Data
+public class SellerSummaryDto {
+
+    private Long id;
+
+    private String sellerName;
+
+    private String businessName;
+
+    private String logo;
+
+}
@@ -0,0 +1,14 @@
+package com.zosh.dto;
+
+import java.time.LocalDateTime;
+
+// row count, version and newest update of whatever the query aggregated over
+public interface VersionStampView {
+
+    Long getCount();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+}
@@ -0,0 +1,28 @@
+package com.zosh.event;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by ProductServiceImpl after a product row has been written,
+ * so in-memory catalog structures can follow the table without polling it.
+ * Batched events belong to a chunk whose publisher evicts the listing
+ * cache once for the whole chunk instead of once per product.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Product product;
+
+    private final ProductChangeType type;
+
+    private final boolean batched;
+
+    public ProductChangedEvent(Product product, ProductChangeType type) {
+        this(product, type, false);
+    }
+
+}
@@ -66,6 +66,15 @@ public class GlobleException {
 		return new ResponseEntity<ErrorDetails>(err,HttpStatus.BAD_REQUEST);
 	}
 
+	@ExceptionHandler(IdempotencyException.class)
+	public ResponseEntity<ErrorDetails> IdempotencyExceptionHandler(IdempotencyException ue, WebRequest req){
+
+		ErrorDetails err= new ErrorDetails(ue.getMessage(),req.getDescription(false),LocalDateTime.now());
+
+		return new ResponseEntity<ErrorDetails>(err,HttpStatus.CONFLICT);
+
+	}
+
 	@ExceptionHandler(CouponNotValidException.class)
 	public ResponseEntity<ErrorDetails> CouponNotValidExceptionHandler(
 			CouponNotValidException ue,
@@ -0,0 +1,9 @@
+package com.zosh.exception;
+
+public class IdempotencyException extends Exception {
+
+	public IdempotencyException(String message) {
+		super(message);
+	}
+
+}
@@ -4,11 +4,16 @@ import com.zosh.domain.OrderStatus;
 import com.zosh.dto.OrderDto;
 import com.zosh.dto.OrderHistory;
 import com.zosh.dto.OrderItemDto;
+import com.zosh.dto.OrderLineDto;
+import com.zosh.dto.OrderSummaryDto;
+import com.zosh.dto.ProductCardDto;
 import com.zosh.model.Order;
 import com.zosh.model.OrderItem;
 import com.zosh.model.User;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class OrderMapper {
@@ -101,6 +106,24 @@ public class OrderMapper {
         return order;
     }
 
+    // Attaches lines and their product cards to a page of order summaries
+    public static List<OrderSummaryDto> toOrderSummaries(List<OrderSummaryDto> orders,
+                                                         List<OrderLineDto> lines,
+                                                         Map<Long, ProductCardDto> cards) {
+        Map<Long, OrderSummaryDto> byId = new HashMap<>();
+        for (OrderSummaryDto order : orders) {
+            byId.put(order.getId(), order);
+        }
+        for (OrderLineDto line : lines) {
+            OrderSummaryDto order = byId.get(line.getOrderId());
+            if (order != null) {
+                line.setProduct(cards.get(line.getProductId()));
+                order.getOrderItems().add(line);
+            }
+        }
+        return orders;
+    }
+
     // Maps OrderHistory to OrderHistoryDto
     public static OrderHistory toOrderHistory(List<Order> orders, User user) {
         if (orders == null || user == null) {
@@ -1,8 +1,12 @@
 package com.zosh.mapper;
 
+import com.zosh.dto.ProductCardDto;
 import com.zosh.dto.ProductDto;
+import com.zosh.dto.RatingSummary;
 import com.zosh.model.Product;
 
+import java.util.ArrayList;
+
 public class ProductMapper {
 
     public static ProductDto toProductDto(Product product) {
@@ -19,9 +23,48 @@ public class ProductMapper {
         productDto.setNumRatings(product.getNumRatings());
         productDto.setCreatedAt(product.getCreatedAt());
         productDto.setSizes(product.getSizes());
+        productDto.setInStock(product.isIn_stock());
+        if (product.getCategory() != null) {
+            productDto.setCategoryId(product.getCategory().getCategoryId());
+        }
 
         return productDto;
     }
+
+    public static ProductCardDto toProductCardDto(Product product) {
+        ProductCardDto card = new ProductCardDto();
+        card.setId(product.getId());
+        card.setTitle(product.getTitle());
+        card.setMrpPrice(product.getMrpPrice());
+        card.setSellingPrice(product.getSellingPrice());
+        card.setDiscountPercent(product.getDiscountPercent());
+        card.setColor(product.getColor());
+        card.setSizes(product.getSizes());
+        card.setNumRatings(product.getNumRatings());
+        card.setAverageRating(product.getAverageRating());
+        card.setInStock(product.isIn_stock());
+        card.setCreatedAt(product.getCreatedAt());
+        if (product.getCategory() != null) {
+            card.setCategoryId(product.getCategory().getCategoryId());
+        }
+        card.setImages(new ArrayList<>(product.getImages()));
+        card.setVersion(product.getVersion());
+
+        return card;
+    }
+    public static RatingSummary toRatingSummary(Product product) {
+        RatingSummary ratings = new RatingSummary();
+        ratings.setNumRatings(product.getNumRatings());
+        ratings.setAverageRating(product.getAverageRating());
+        ratings.getHistogram().put(5, product.getFiveStarRatings());
+        ratings.getHistogram().put(4, product.getFourStarRatings());
+        ratings.getHistogram().put(3, product.getThreeStarRatings());
+        ratings.getHistogram().put(2, product.getTwoStarRatings());
+        ratings.getHistogram().put(1, product.getOneStarRatings());
+
+        return ratings;
+    }
+
     public Product mapToEntity(ProductDto productDto) {
         return null;
     }
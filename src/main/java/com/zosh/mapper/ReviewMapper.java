@@ -0,0 +1,26 @@
+package com.zosh.mapper;
+
+import com.zosh.dto.ReviewDto;
+import com.zosh.model.Review;
+
+import java.util.ArrayList;
+
+public class ReviewMapper {
+
+    public static ReviewDto toReviewDto(Review review) {
+        ReviewDto reviewDto = new ReviewDto();
+        reviewDto.setId(review.getId());
+        reviewDto.setReviewText(review.getReviewText());
+        reviewDto.setRating(review.getRating());
+        if (review.getProductImages() != null) {
+            reviewDto.setProductImages(new ArrayList<>(review.getProductImages()));
+        }
+        if (review.getUser() != null) {
+            reviewDto.setUserId(review.getUser().getId());
+            reviewDto.setUserFullName(review.getUser().getFullName());
+        }
+        reviewDto.setCreatedAt(review.getCreatedAt());
+
+        return reviewDto;
+    }
+}
@@ -3,6 +3,7 @@ package com.zosh.model;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -13,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Entity
@@ -44,5 +46,14 @@ public class Cart {
     private String couponCode;
     private int couponPrice;
 
+    // null on rows saved before totals were kept incrementally, see CartTotals
+    @JsonIgnore
+    private Boolean totalsValid;
+
+    // concurrent writers (two tabs, double clicks) lose with an optimistic
+    // lock failure and are retried, see ConflictRetryInterceptor
+    @Version
+    private long version;
+
 
 }
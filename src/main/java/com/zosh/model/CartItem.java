@@ -4,11 +4,15 @@ import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.*;
 
 @Setter
@@ -16,6 +20,9 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+		name = "uk_cart_item_cart_product_size",
+		columnNames = {"cart_id", "product_id", "size"}))
 public class CartItem {
 	
 	@Id
@@ -29,7 +36,10 @@ public class CartItem {
 	@ManyToOne
 	private Product product;
 	
-	private String size;
+	// "" when the product has no size: MySQL unique keys treat NULLs as
+	// distinct, so a NULL size would let concurrent adds duplicate the line
+	@Column(nullable = false)
+	private String size = "";
 	
 	private int quantity;
 	
@@ -38,6 +48,9 @@ public class CartItem {
 	private Integer sellingPrice;
 	
 	private Long userId;
+
+	@Version
+	private long version;
 	
 
 	
@@ -5,6 +5,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "categories")
@@ -27,6 +30,12 @@ public class Category {
 
     @NotNull
     private Integer level;
+
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
     
 
 
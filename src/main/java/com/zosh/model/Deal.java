@@ -5,6 +5,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
@@ -20,5 +23,11 @@ public class Deal {
     @OneToOne
     private HomeCategory category;
 
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
 
 }
@@ -0,0 +1,39 @@
+package com.zosh.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class FlashSale {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private Long productId;
+
+    // units a replica claims from Product.quantity at a time
+    private int blockSize;
+
+    private boolean active;
+
+    // reported by the replicas, lags by one refresh interval
+    private long soldUnits;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime endedAt;
+
+}
@@ -5,10 +5,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
@@ -24,4 +28,10 @@ public class HomeCategory {
     private String image;
     private String categoryId;
     private HomeCategorySection section;
+
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,69 @@
+package com.zosh.model;
+
+import com.zosh.domain.IdempotencyStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// one client request per (scope, user, key): claimed while running, then the response to replay
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_idempotency_scope_user_key",
+                columnNames = {"scope", "user_id", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_expiry", columnList = "expiresAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_record_seq")
+    @SequenceGenerator(name = "idempotency_record_seq", sequenceName = "idempotency_record_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String scope;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    // sha-256 of the request, a reused key with a different request is rejected
+    @Column(nullable = false, length = 44)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status;
+
+    private Integer responseStatus;
+
+    @Column(length = 4000)
+    private String responseBody;
+
+    // progress saved by the call, lets a retry resume instead of repeating committed work
+    @Column(length = 100)
+    private String checkpoint;
+
+    private LocalDateTime createdAt;
+
+    // lease while IN_PROGRESS, retention once COMPLETED
+    private LocalDateTime expiresAt;
+
+}
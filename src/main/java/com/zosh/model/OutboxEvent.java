@@ -0,0 +1,63 @@
+package com.zosh.model;
+
+import com.zosh.domain.OutboxEventType;
+import com.zosh.domain.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// a side effect written in the same transaction as the change that caused it
+@Entity
+@Table(name = "outbox_event", indexes = {
+        @Index(name = "idx_outbox_event_due", columnList = "status, availableAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType eventType;
+
+    // order id or payment order id, depending on the type
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // type + aggregate, the same side effect is never queued twice
+    @Column(nullable = false, unique = true, length = 64)
+    private String dedupeKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    private int attempts;
+
+    private LocalDateTime availableAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+}
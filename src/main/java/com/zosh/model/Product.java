@@ -12,8 +12,16 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 
 import lombok.*;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_price_id", columnList = "sellingPrice, id"),
+        @Index(name = "idx_product_created_id", columnList = "createdAt, id"),
+        @Index(name = "idx_product_rating_id", columnList = "averageRating, id"),
+        @Index(name = "idx_product_updated_id", columnList = "updatedAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,10 +49,26 @@ public class Product {
     private String color;
 
     @ElementCollection
+    @OrderColumn(name = "image_order")
     private List<String> images =new ArrayList<>();
 
     private int numRatings;
 
+    // rating aggregates, only ever changed by ProductRepository.adjustRatings
+    private double ratingSum;
+
+    private double averageRating;
+
+    private int oneStarRatings;
+
+    private int twoStarRatings;
+
+    private int threeStarRatings;
+
+    private int fourStarRatings;
+
+    private int fiveStarRatings;
+
     @ManyToOne
     private Category category;
 
@@ -60,4 +84,11 @@ public class Product {
     private List<Review> reviews = new ArrayList<>();
 
    private boolean in_stock = true;
+
+    @Version
+    private long version;
+
+    // JVM clock, like the :now the bulk updates in ProductRepository pass
+    @UpdateTimestamp(source = SourceType.VM)
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,25 @@
+package com.zosh.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// kept apart from Product so counting views never locks or versions the product row
+@Entity
+@Table(name = "product_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductStats {
+
+    @Id
+    private Long productId;
+
+    private long viewCount;
+
+    private long cartAddCount;
+
+}
@@ -0,0 +1,37 @@
+package com.zosh.model;
+
+import com.zosh.domain.OrderStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// orders per seller and status, kept in step with every order write
+@Entity
+@Table(name = "seller_order_count", uniqueConstraints = @UniqueConstraint(
+        name = "uk_seller_order_count_seller_status",
+        columnNames = {"seller_id", "order_status"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class SellerOrderCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sellerId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus orderStatus;
+
+    private long orderCount;
+
+}
@@ -0,0 +1,51 @@
+package com.zosh.model;
+
+import com.zosh.domain.ReservationStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// stock taken from Product.quantity for one order line until the payment settles
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_order", columnList = "orderId"),
+        @Index(name = "idx_stock_reservation_expiry", columnList = "status, expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "stock_reservation_seq", allocationSize = 50)
+    private Long id;
+
+    private Long orderId;
+
+    private Long productId;
+
+    private int quantity;
+
+    // counted in FlashSale.soldUnits, taken back out if the stock is returned
+    private boolean flashSale;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status = ReservationStatus.HELD;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime expiresAt;
+
+}
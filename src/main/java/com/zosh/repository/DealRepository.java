@@ -1,8 +1,12 @@
 package com.zosh.repository;
 
+import com.zosh.dto.VersionStampView;
 import com.zosh.model.Deal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface DealRepository extends JpaRepository<Deal,Long> {
 
+    @Query("SELECT COUNT(d) AS count, COALESCE(SUM(d.version), 0) AS version, MAX(d.updatedAt) AS updatedAt FROM Deal d")
+    VersionStampView findVersionStamp();
 }
@@ -0,0 +1,21 @@
+package com.zosh.repository;
+
+import com.zosh.model.FlashSale;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FlashSaleRepository extends JpaRepository<FlashSale, Long> {
+
+    FlashSale findByProductId(Long productId);
+
+    List<FlashSale> findByActiveTrue();
+
+    @Modifying
+    @Query("UPDATE FlashSale f SET f.soldUnits = f.soldUnits + :sold WHERE f.productId = :productId")
+    int addSold(@Param("productId") Long productId, @Param("sold") long sold);
+
+}
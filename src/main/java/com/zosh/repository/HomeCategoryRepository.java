@@ -1,7 +1,12 @@
 package com.zosh.repository;
 
+import com.zosh.dto.VersionStampView;
 import com.zosh.model.HomeCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface HomeCategoryRepository extends JpaRepository<HomeCategory,Long> {
+
+    @Query("SELECT COUNT(h) AS count, COALESCE(SUM(h.version), 0) AS version, MAX(h.updatedAt) AS updatedAt FROM HomeCategory h")
+    VersionStampView findVersionStamp();
 }
@@ -0,0 +1,54 @@
+package com.zosh.repository;
+
+import com.zosh.domain.IdempotencyStatus;
+import com.zosh.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    IdempotencyRecord findByScopeAndUserIdAndIdempotencyKey(String scope, Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.responseStatus = :responseStatus, " +
+            "r.responseBody = :responseBody, r.expiresAt = :expiresAt WHERE r.id = :id")
+    int complete(@Param("id") Long id,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.checkpoint = :checkpoint WHERE r.id = :id")
+    int saveCheckpoint(@Param("id") Long id, @Param("checkpoint") String checkpoint);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.expiresAt = :expiresAt WHERE r.id = :id")
+    int interrupt(@Param("id") Long id,
+                  @Param("status") IdempotencyStatus status,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+
+    // an interrupted call, or one whose lease ran out, is taken over by exactly one request
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :inProgress, r.expiresAt = :lease WHERE r.id = :id " +
+            "AND ((r.status = :interrupted AND r.expiresAt >= :now) OR (r.status = :inProgress AND r.expiresAt < :now))")
+    int resume(@Param("id") Long id,
+               @Param("inProgress") IdempotencyStatus inProgress,
+               @Param("interrupted") IdempotencyStatus interrupted,
+               @Param("lease") LocalDateTime lease,
+               @Param("now") LocalDateTime now);
+
+    // only removes the row if it is still expired, so a fresh claim by someone else survives
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,28 @@
+package com.zosh.repository;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderSummaryDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Seller order inbox. Only the filters that are set end up in the WHERE
+ * clause, so each combination can use idx_orders_seller_status_date or
+ * idx_orders_seller_date instead of a catch-all query.
+ */
+public interface OrderInboxRepository {
+
+    // newest first; afterDate/afterId are the last row of the previous page, or null
+    List<OrderSummaryDto> findInbox(Long sellerId,
+                                    Collection<OrderStatus> statuses,
+                                    PaymentStatus paymentStatus,
+                                    LocalDateTime from,
+                                    LocalDateTime to,
+                                    LocalDateTime afterDate,
+                                    Long afterId,
+                                    int limit);
+
+}
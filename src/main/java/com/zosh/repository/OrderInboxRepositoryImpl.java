@@ -0,0 +1,78 @@
+package com.zosh.repository;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderSummaryDto;
+import com.zosh.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class OrderInboxRepositoryImpl implements OrderInboxRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderSummaryDto> findInbox(Long sellerId,
+                                           Collection<OrderStatus> statuses,
+                                           PaymentStatus paymentStatus,
+                                           LocalDateTime from,
+                                           LocalDateTime to,
+                                           LocalDateTime afterDate,
+                                           Long afterId,
+                                           int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderSummaryDto> query = cb.createQuery(OrderSummaryDto.class);
+        Root<Order> root = query.from(Order.class);
+
+        query.select(cb.construct(OrderSummaryDto.class,
+                root.get("id"),
+                root.get("orderId"),
+                root.get("sellerId"),
+                root.get("orderStatus"),
+                root.get("paymentStatus"),
+                root.get("totalMrpPrice"),
+                root.get("totalSellingPrice"),
+                root.get("discount"),
+                root.get("totalItem"),
+                root.get("orderDate"),
+                root.get("deliverDate")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("sellerId"), sellerId));
+        if (statuses != null && !statuses.isEmpty()) {
+            predicates.add(root.get("orderStatus").in(statuses));
+        }
+        if (paymentStatus != null) {
+            predicates.add(cb.equal(root.get("paymentStatus"), paymentStatus));
+        }
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(root.get("orderDate"), to));
+        }
+        if (afterDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("orderDate"), afterDate),
+                    cb.and(cb.equal(root.get("orderDate"), afterDate),
+                            cb.lessThan(root.get("id"), afterId))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(root.get("orderDate")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
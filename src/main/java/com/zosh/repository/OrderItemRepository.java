@@ -1,9 +1,20 @@
 package com.zosh.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.zosh.dto.OrderLineDto;
 import com.zosh.model.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
+    // lines of a whole page of orders, product cards are filled in separately
+    @Query("SELECT new com.zosh.dto.OrderLineDto(i.id, i.order.id, i.product.id, i.size, i.quantity, " +
+            "i.mrpPrice, i.sellingPrice) FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderLineDto> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
 }
@@ -6,6 +6,8 @@ import java.util.List;
 import java.util.Optional;
 
 import com.zosh.domain.OrderStatus;
+import com.zosh.dto.OrderSummaryDto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,10 +15,29 @@ import org.springframework.data.repository.query.Param;
 import com.zosh.model.Order;
 import com.zosh.model.User;
 
-public interface OrderRepository extends JpaRepository<Order,Long> {
+public interface OrderRepository extends JpaRepository<Order,Long>, OrderInboxRepository {
 
     List<Order>findByUserId(Long userId);
+
+    String ORDER_SUMMARY = "SELECT new com.zosh.dto.OrderSummaryDto(o.id, o.orderId, o.sellerId, " +
+            "o.orderStatus, o.paymentStatus, o.totalMrpPrice, o.totalSellingPrice, o.discount, " +
+            "o.totalItem, o.orderDate, o.deliverDate) FROM Order o ";
+
+    // newest first, walks idx_orders_user_date; the page size comes from the Pageable
+    @Query(ORDER_SUMMARY + "WHERE o.user.id = :userId ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryDto> findHistory(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(ORDER_SUMMARY + "WHERE o.user.id = :userId AND (o.orderDate < :orderDate " +
+            "OR (o.orderDate = :orderDate AND o.id < :id)) ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummaryDto> findHistoryAfter(@Param("userId") Long userId,
+                                           @Param("orderDate") LocalDateTime orderDate,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
     List<Order> findBySellerIdOrderByOrderDateDesc(Long sellerId);
+
+    // only used once per seller, to seed seller_order_count
+    @Query("SELECT o.orderStatus, COUNT(o) FROM Order o WHERE o.sellerId = :sellerId GROUP BY o.orderStatus")
+    List<Object[]> countBySellerGroupByStatus(@Param("sellerId") Long sellerId);
     List<Order> findBySellerIdAndOrderDateBetween(Long sellerId,LocalDateTime startDate, LocalDateTime endDate);
 
 }
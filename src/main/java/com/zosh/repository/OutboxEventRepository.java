@@ -0,0 +1,46 @@
+package com.zosh.repository;
+
+import com.zosh.domain.OutboxStatus;
+import com.zosh.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByStatusAndAvailableAtLessThanEqualOrderByIdAsc(OutboxStatus status,
+                                                                         LocalDateTime time,
+                                                                         Pageable pageable);
+
+    // claims the event for the current transaction; 0 means another dispatcher already handled it
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = com.zosh.domain.OutboxStatus.DONE, e.processedAt = :now " +
+            "WHERE e.id = :id AND e.status = com.zosh.domain.OutboxStatus.PENDING")
+    int markDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // leases the event to one dispatcher for work done outside a transaction; stays PENDING,
+    // so it comes back by itself if the dispatcher dies before marking it done
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :leaseUntil " +
+            "WHERE e.id = :id AND e.status = com.zosh.domain.OutboxStatus.PENDING AND e.availableAt <= :now")
+    int lease(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.status = :status, " +
+            "e.availableAt = :availableAt, e.lastError = :error " +
+            "WHERE e.id = :id AND e.status = com.zosh.domain.OutboxStatus.PENDING")
+    int retryLater(@Param("id") Long id,
+                   @Param("status") OutboxStatus status,
+                   @Param("availableAt") LocalDateTime availableAt,
+                   @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.zosh.domain.OutboxStatus.DONE AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+
+}
@@ -0,0 +1,25 @@
+package com.zosh.repository;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read side of the catalog. Returns {@link ProductCardDto} rows selected
+ * column by column, with images filled in by one extra query per page.
+ */
+public interface ProductCardRepository {
+
+    Page<ProductCardDto> findCards(Specification<Product> spec, Pageable pageable);
+
+    List<ProductCardDto> findCards(Specification<Product> spec, Sort sort, int limit);
+
+    List<ProductCardDto> findCardsByIds(Collection<Long> ids);
+
+}
@@ -0,0 +1,131 @@
+package com.zosh.repository;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.model.Category;
+import com.zosh.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductCardRepositoryImpl implements ProductCardRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductCardDto> findCards(Specification<Product> spec, Pageable pageable) {
+        TypedQuery<ProductCardDto> query = cardQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ProductCardDto> cards = withImages(query.getResultList());
+
+        long total = cards.size();
+        if (pageable.isPaged()
+                && (pageable.getOffset() > 0 || cards.size() == pageable.getPageSize())) {
+            total = count(spec);
+        }
+        return new PageImpl<>(cards, pageable, total);
+    }
+
+    @Override
+    public List<ProductCardDto> findCards(Specification<Product> spec, Sort sort, int limit) {
+        TypedQuery<ProductCardDto> query = cardQuery(spec, sort);
+        query.setMaxResults(limit);
+        return withImages(query.getResultList());
+    }
+
+    @Override
+    public List<ProductCardDto> findCardsByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Specification<Product> byIds = (root, query, cb) -> root.get("id").in(ids);
+        return withImages(cardQuery(byIds, Sort.unsorted()).getResultList());
+    }
+
+    private TypedQuery<ProductCardDto> cardQuery(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductCardDto> query = cb.createQuery(ProductCardDto.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(cb.construct(ProductCardDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("mrpPrice"),
+                root.get("sellingPrice"),
+                root.get("discountPercent"),
+                root.get("color"),
+                root.get("Sizes"),
+                root.get("numRatings"),
+                root.get("averageRating"),
+                root.get("in_stock"),
+                root.get("createdAt"),
+                category.get("categoryId"),
+                root.get("version")));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private List<ProductCardDto> withImages(List<ProductCardDto> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+        Map<Long, ProductCardDto> byId = new HashMap<>();
+        for (ProductCardDto card : cards) {
+            byId.put(card.getId(), card);
+        }
+
+        // one query for the images of the whole page instead of one per product,
+        // in list order so the card's first image is the product's first image
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT p.id, i FROM Product p JOIN p.images i WHERE p.id IN :ids " +
+                                "ORDER BY p.id, INDEX(i)", Object[].class)
+                .setParameter("ids", byId.keySet())
+                .getResultList();
+        for (Object[] row : rows) {
+            byId.get((Long) row[0]).getImages().add((String) row[1]);
+        }
+        return cards;
+    }
+}
@@ -1,15 +1,23 @@
 package com.zosh.repository;
 
+import com.zosh.dto.ProductChangeView;
+import com.zosh.dto.ProductVersionView;
+import com.zosh.dto.RecentProductView;
+import com.zosh.dto.VersionStampView;
 import com.zosh.model.Category;
 import com.zosh.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpecificationExecutor<Product>,
+        ProductCardRepository {
 
     List<Product> findBySellerId(Long shopId);
 
@@ -23,6 +31,82 @@ public interface ProductRepository extends JpaRepository<Product,Long> , JpaSpec
     )
     List<Product> searchProduct(@Param("query") String query);
 
+    @Query("SELECT COUNT(p) AS count, MAX(p.version) AS version, MAX(p.updatedAt) AS updatedAt " +
+            "FROM Product p WHERE p.id = :id")
+    VersionStampView findVersionStamp(@Param("id") Long id);
+
+    @Query("SELECT p.id AS id, c.categoryId AS categoryId FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.in_stock = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<RecentProductView> findRecentInStock(Pageable pageable);
+
+    // keyset scan over (updatedAt, id), used to pick up writes made by other
+    // replicas; only the stamps, entities are loaded for the rows that changed
+    @Query("SELECT p.id AS id, p.version AS version, p.updatedAt AS updatedAt FROM Product p " +
+            "WHERE p.updatedAt > :updatedAt OR (p.updatedAt = :updatedAt AND p.id > :id) " +
+            "ORDER BY p.updatedAt, p.id")
+    List<ProductChangeView> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findLastUpdatedAt();
+
+    @Query("SELECT p.id AS id, p.version AS version FROM Product p")
+    List<ProductVersionView> findAllVersions();
+
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    // the bulk updates below stamp updatedAt with a :now from the JVM, the same
+    // clock @UpdateTimestamp uses, never the database's CURRENT_TIMESTAMP; the
+    // catalog sync watermark and Last-Modified compare the two
+
+    // averageRating is assigned first so it is computed from the old
+    // values on every database (MySQL applies SET items left to right)
+    @Modifying
+    @Query("UPDATE Product p SET " +
+            "p.averageRating = CASE WHEN p.numRatings + :count > 0 " +
+            "THEN (p.ratingSum + :sum) / (p.numRatings + :count) ELSE 0 END, " +
+            "p.version = p.version + 1, " +
+            "p.updatedAt = :now, " +
+            "p.numRatings = p.numRatings + :count, " +
+            "p.ratingSum = p.ratingSum + :sum, " +
+            "p.oneStarRatings = p.oneStarRatings + :one, " +
+            "p.twoStarRatings = p.twoStarRatings + :two, " +
+            "p.threeStarRatings = p.threeStarRatings + :three, " +
+            "p.fourStarRatings = p.fourStarRatings + :four, " +
+            "p.fiveStarRatings = p.fiveStarRatings + :five " +
+            "WHERE p.id = :productId")
+    int adjustRatings(@Param("productId") Long productId,
+                      @Param("count") int count,
+                      @Param("sum") double sum,
+                      @Param("one") int one,
+                      @Param("two") int two,
+                      @Param("three") int three,
+                      @Param("four") int four,
+                      @Param("five") int five,
+                      @Param("now") LocalDateTime now);
+
+    // conditional decrement, 0 rows updated means there is not enough stock left
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :productId AND p.quantity >= :quantity")
+    int takeStock(@Param("productId") Long productId,
+                  @Param("quantity") int quantity,
+                  @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :productId")
+    Integer findQuantity(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, " +
+            "p.version = p.version + 1, p.updatedAt = :now " +
+            "WHERE p.id = :productId AND p.quantity + :quantity >= 0")
+    int returnStock(@Param("productId") Long productId,
+                    @Param("quantity") int quantity,
+                    @Param("now") LocalDateTime now);
+
 
 
 }
@@ -3,6 +3,7 @@ package com.zosh.repository;
 import com.zosh.model.Product;
 import com.zosh.model.Review;
 import com.zosh.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -10,4 +11,5 @@ import java.util.List;
 public interface ReviewRepository extends JpaRepository<Review,Long> {
     List<Review> findReviewsByUserId(Long userId);
     List<Review> findReviewsByProductId(Long productId);
+    List<Review> findByProductIdOrderByCreatedAtDesc(Long productId, Pageable pageable);
 }
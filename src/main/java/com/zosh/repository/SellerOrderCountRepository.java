@@ -0,0 +1,23 @@
+package com.zosh.repository;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.model.SellerOrderCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SellerOrderCountRepository extends JpaRepository<SellerOrderCount, Long> {
+
+    List<SellerOrderCount> findBySellerId(Long sellerId);
+
+    @Modifying
+    @Query("UPDATE SellerOrderCount c SET c.orderCount = c.orderCount + :delta " +
+            "WHERE c.sellerId = :sellerId AND c.orderStatus = :status")
+    int adjust(@Param("sellerId") Long sellerId,
+               @Param("status") OrderStatus status,
+               @Param("delta") long delta);
+
+}
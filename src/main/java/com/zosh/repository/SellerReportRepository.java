@@ -2,7 +2,19 @@ package com.zosh.repository;
 
 import com.zosh.model.SellerReport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface SellerReportRepository extends JpaRepository<SellerReport,Long> {
     SellerReport findBySellerId(Long sellerId);
+
+    // in place, so concurrent dispatchers don't overwrite each other's increments
+    @Modifying
+    @Query("UPDATE SellerReport r SET r.totalOrders = r.totalOrders + 1, " +
+            "r.totalEarnings = r.totalEarnings + :earnings, r.totalSales = r.totalSales + :sales " +
+            "WHERE r.seller.id = :sellerId")
+    int addSale(@Param("sellerId") Long sellerId,
+                @Param("earnings") long earnings,
+                @Param("sales") long sales);
 }
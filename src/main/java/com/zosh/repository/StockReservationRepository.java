@@ -0,0 +1,30 @@
+package com.zosh.repository;
+
+import com.zosh.domain.ReservationStatus;
+import com.zosh.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrderIdIn(Collection<Long> orderIds);
+
+    List<StockReservation> findByStatusAndExpiresAtBefore(ReservationStatus status,
+                                                          LocalDateTime time,
+                                                          Pageable pageable);
+
+    // compare-and-set on the status, so expiry, payment and cancel can race safely
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+
+}
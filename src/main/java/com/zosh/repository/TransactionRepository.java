@@ -8,4 +8,6 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
 
     List<Transaction> findBySellerId(Long sellerId);
+
+    boolean existsByOrderId(Long orderId);
 }
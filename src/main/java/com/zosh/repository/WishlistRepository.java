@@ -2,7 +2,12 @@ package com.zosh.repository;
 
 import com.zosh.model.Wishlist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     Wishlist findByUserId(Long userId);
+
+    @Query("SELECT COUNT(p) FROM Wishlist w JOIN w.products p WHERE w.user.id = :userId AND p.id = :productId")
+    long countProductInWishlist(@Param("userId") Long userId, @Param("productId") Long productId);
 }
@@ -0,0 +1,18 @@
+package com.zosh.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+
+	// applied in order
+	private List<CartOperationRequest> operations = new ArrayList<>();
+
+}
@@ -0,0 +1,25 @@
+package com.zosh.request;
+
+import com.zosh.domain.CartOperationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperationRequest {
+
+	private CartOperationType type;
+
+	// ADD
+	private Long productId;
+	private String size;
+
+	// UPDATE and REMOVE
+	private Long cartItemId;
+
+	// ADD adds this many, UPDATE sets it, zero or less removes the item
+	private int quantity;
+
+}
@@ -26,6 +26,8 @@ public class CreateProductRequest {
 
     private int sellingPrice;
 
+    private int quantity;
+
     private String brand;
 
     private String color;
@@ -0,0 +1,24 @@
+package com.zosh.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content = new ArrayList<>();
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    // only filled in when the caller asked for it, counting is not free
+    private Long totalElements;
+
+}
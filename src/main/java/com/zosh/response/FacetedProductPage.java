@@ -0,0 +1,21 @@
+package com.zosh.response;
+
+import com.zosh.dto.ProductCardDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedProductPage {
+
+    private Page<ProductCardDto> products;
+
+    // facet name -> value -> number of matching products
+    private Map<String, Map<String, Integer>> facets;
+
+}
@@ -0,0 +1,25 @@
+package com.zosh.response;
+
+import com.zosh.dto.GuestCartItemDto;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class GuestCartResponse {
+
+    private List<GuestCartItemDto> cartItems = new ArrayList<>();
+
+    private int totalItem;
+
+    private int totalMrpPrice;
+
+    private int totalSellingPrice;
+
+    private int discount;
+
+    // signed cart to send back on the next request, also set as a cookie
+    private String token;
+
+}
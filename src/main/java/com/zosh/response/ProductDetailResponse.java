@@ -0,0 +1,32 @@
+package com.zosh.response;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.ProductDto;
+import com.zosh.dto.RatingSummary;
+import com.zosh.dto.ReviewDto;
+import com.zosh.dto.SellerSummaryDto;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductDetailResponse {
+
+    private ProductDto product;
+
+    private SellerSummaryDto seller;
+
+    private RatingSummary ratings;
+
+    private List<ReviewDto> reviews;
+
+    private List<ProductCardDto> similarProducts;
+
+    // null when the caller is anonymous or the lookup did not make it in time
+    private Boolean inWishlist;
+
+    // parts that failed or missed their deadline, the page renders without them
+    private List<String> missing = new ArrayList<>();
+
+}
@@ -0,0 +1,13 @@
+package com.zosh.service;
+
+import java.util.List;
+
+public interface BoughtTogetherService {
+
+    List<Long> partnerIds(Long productId, int limit);
+
+    int rebuild();
+
+    int update();
+
+}
@@ -1,11 +1,15 @@
 package com.zosh.service;
 
+import com.zosh.exception.CartItemException;
 import com.zosh.exception.ProductException;
 import com.zosh.model.Cart;
 import com.zosh.model.CartItem;
 import com.zosh.model.Product;
 import com.zosh.model.User;
 import com.zosh.request.AddItemRequest;
+import com.zosh.request.CartOperationRequest;
+
+import java.util.List;
 
 public interface CartService {
 
@@ -16,4 +20,7 @@ public interface CartService {
 
 	public Cart findUserCart(User user);
 	public void clearCart(User user);
+
+	public Cart applyOperations(User user, List<CartOperationRequest> operations)
+			throws ProductException, CartItemException;
 }
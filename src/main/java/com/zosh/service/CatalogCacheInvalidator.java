@@ -0,0 +1,106 @@
+package com.zosh.service;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.model.Category;
+import com.zosh.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drops cached listing pages that a product change can affect: every page
+ * filtered on the product's category or one of its ancestors, every
+ * unfiltered page, and any page that currently contains the product
+ * (covers a product moved out of its old category).
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheInvalidator {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    // productId -> ProductCardDto, used to price guest carts
+    public static final String PRODUCT_PRICES_CACHE = "productPrices";
+
+    private final CacheManager cacheManager;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || event.isBatched()) {
+            return;
+        }
+        evict(List.of(product));
+    }
+
+    // one pass over the cache for a whole chunk of changed products
+    public void evict(Collection<Product> products) {
+        Set<String> tags = new HashSet<>();
+        tags.add(null);
+        Set<Long> productIds = new HashSet<>();
+        for (Product product : products) {
+            Category category = product.getCategory();
+            while (category != null) {
+                tags.add(category.getCategoryId());
+                category = category.getParentCategory();
+            }
+            if (product.getId() != null) {
+                productIds.add(product.getId());
+            }
+        }
+
+        evict(tags, productIds);
+
+        Cache prices = cacheManager.getCache(PRODUCT_PRICES_CACHE);
+        if (prices != null) {
+            for (Long productId : productIds) {
+                prices.evict(productId);
+            }
+        }
+    }
+
+    public void evict(Set<String> categoryTags, Set<Long> productIds) {
+        Cache cache = cacheManager.getCache(PRODUCTS_CACHE);
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            if (cache != null) {
+                cache.clear();
+            }
+            return;
+        }
+
+        caffeineCache.getNativeCache().asMap().entrySet().removeIf(entry ->
+                (entry.getKey() instanceof CatalogCacheKey key && categoryTags.contains(key.category()))
+                        || containsProduct(entry.getValue(), productIds));
+    }
+
+    private boolean containsProduct(Object value, Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return false;
+        }
+        Object body = value instanceof ResponseEntity<?> response ? response.getBody() : value;
+        if (!(body instanceof Page<?> page)) {
+            return false;
+        }
+        for (Object item : page.getContent()) {
+            if (item instanceof ProductCardDto card && productIds.contains(card.getId())) {
+                return true;
+            }
+            if (item instanceof Product product && productIds.contains(product.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.zosh.service;
+
+/**
+ * Cache key for a product listing page. Built from every filter the
+ * listing actually applies, normalised so equivalent requests share an
+ * entry. The category doubles as the invalidation tag.
+ */
+public record CatalogCacheKey(String category,
+                              String color,
+                              String size,
+                              Integer minPrice,
+                              Integer maxPrice,
+                              Integer minDiscount,
+                              Double minRating,
+                              String sort,
+                              String stock,
+                              int pageNumber) {
+
+    public static CatalogCacheKey of(String category,
+                                     String color,
+                                     String size,
+                                     Integer minPrice,
+                                     Integer maxPrice,
+                                     Integer minDiscount,
+                                     Double minRating,
+                                     String sort,
+                                     String stock,
+                                     Integer pageNumber) {
+        String normalisedSort = "price_low".equals(sort) || "price_high".equals(sort) || "rating".equals(sort)
+                ? sort : null;
+        return new CatalogCacheKey(blankToNull(category),
+                blankToNull(color),
+                blankToNull(size),
+                minPrice,
+                maxPrice,
+                minDiscount,
+                minRating,
+                normalisedSort,
+                blankToNull(stock),
+                pageNumber != null ? pageNumber : 0);
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zosh.service;
+
+import com.zosh.model.Category;
+
+import java.util.Set;
+
+public interface CategoryTreeService {
+
+    Category findOrCreate(String categoryId, int level, Category parent);
+
+    Category findByCategoryId(String categoryId);
+
+    Set<Long> descendantIds(String categoryId);
+
+    void refresh();
+
+}
@@ -0,0 +1,27 @@
+package com.zosh.service;
+
+import com.zosh.domain.StockSource;
+import com.zosh.exception.ProductException;
+import com.zosh.model.FlashSale;
+
+import java.util.List;
+
+public interface FlashSaleService {
+
+    FlashSale startFlashSale(Long productId, Integer blockSize) throws ProductException;
+
+    FlashSale endFlashSale(Long productId) throws ProductException;
+
+    List<FlashSale> getFlashSales();
+
+    // takes stock from the local token pool during a flash sale, from the product row otherwise;
+    // null when there is not enough stock
+    StockSource takeStock(Long productId, int quantity);
+
+    // corrects FlashSale.soldUnits when units sold in a sale go back to the
+    // product or are sold again; must run inside the caller's transaction
+    void adjustSold(Long productId, int delta);
+
+    int refresh();
+
+}
@@ -0,0 +1,22 @@
+package com.zosh.service;
+
+import com.zosh.exception.CartItemException;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Cart;
+import com.zosh.model.User;
+import com.zosh.response.GuestCartResponse;
+
+public interface GuestCartService {
+
+    GuestCartResponse getCart(String token);
+
+    GuestCartResponse addItem(String token, Long productId, String size, int quantity)
+            throws ProductException, CartItemException;
+
+    // zero or less removes the line
+    GuestCartResponse updateItem(String token, Long productId, String size, int quantity);
+
+    // null when the token holds nothing to merge
+    Cart mergeIntoUserCart(User user, String token) throws ProductException, CartItemException;
+
+}
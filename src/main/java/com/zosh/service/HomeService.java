@@ -9,4 +9,6 @@ public interface HomeService {
 
     Home creatHomePageData(List<HomeCategory> categories);
 
+    String homePageETag();
+
 }
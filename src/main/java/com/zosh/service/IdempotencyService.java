@@ -0,0 +1,44 @@
+package com.zosh.service;
+
+import org.springframework.http.ResponseEntity;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Runs the call once per (scope, user, key). A duplicate that arrives
+     * while the first one is running waits for it; a later duplicate gets
+     * the stored response back without running the call. A blank key runs
+     * the call directly.
+     *
+     * A call that fails before saving a checkpoint releases the key. One
+     * that fails after it keeps the key, and the next request with it
+     * resumes from the checkpoint instead of starting over.
+     */
+    <T> ResponseEntity<T> execute(String scope,
+                                  Long userId,
+                                  String key,
+                                  Object request,
+                                  Class<T> responseType,
+                                  IdempotentCall<T> call) throws Exception;
+
+    int purgeExpired();
+
+    @FunctionalInterface
+    interface IdempotentCall<T> {
+        ResponseEntity<T> call(Progress progress) throws Exception;
+    }
+
+    // how far a call that commits in several steps got, kept with the key
+    interface Progress {
+
+        // null on the first attempt
+        String checkpoint();
+
+        // committed right away, whatever happens to the rest of the call
+        void save(String checkpoint);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.zosh.service;
+
+import com.zosh.exception.OrderException;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Order;
+import com.zosh.model.Product;
+
+import java.util.Collection;
+
+public interface InventoryService {
+
+    // all or nothing, must run inside the transaction that creates the orders
+    void reserve(Collection<Order> orders) throws OrderException;
+
+    void commit(Collection<Order> orders);
+
+    void release(Collection<Order> orders);
+
+    int releaseExpired();
+
+    // delta may be negative, stock never goes below zero
+    Product restock(Long productId, int delta) throws ProductException;
+
+}
@@ -0,0 +1,12 @@
+package com.zosh.service;
+
+import java.util.List;
+
+public interface NewArrivalsService {
+
+    // newest first; category is a top-level categoryId, null for all products
+    List<Long> newestIds(String category, int limit);
+
+    int rebuild();
+
+}
@@ -1,23 +1,41 @@
 package com.zosh.service;
 
 import com.zosh.domain.OrderStatus;
+import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderSummaryDto;
 import com.zosh.exception.OrderException;
 import com.zosh.model.*;
 import com.zosh.model.Order;
+import com.zosh.response.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface OrderService {
 	
-	public Set<Order> createOrder(User user, Address shippingAddress, Cart cart);
+	public Set<Order> createOrder(User user, Address shippingAddress, Cart cart) throws OrderException;
 	
 	public Order findOrderById(Long orderId) throws OrderException;
 	
-	public List<Order> usersOrderHistory(Long userId);
+	// newest first, pass the previous page's nextCursor to continue
+	public CursorPage<OrderSummaryDto> usersOrderHistory(Long userId, String cursor, Integer size)
+			throws OrderException;
 	
 	public List<Order>getShopsOrders(Long sellerId);
 
+	// every filter is optional, newest first with the same cursor format as the history
+	public CursorPage<OrderSummaryDto> getSellerInbox(Long sellerId,
+													  List<OrderStatus> statuses,
+													  PaymentStatus paymentStatus,
+													  LocalDateTime from,
+													  LocalDateTime to,
+													  String cursor,
+													  Integer size) throws OrderException;
+
+	public Map<OrderStatus, Long> getSellerOrderCounts(Long sellerId);
+
 	public Order updateOrderStatus(Long orderId,
 								   OrderStatus orderStatus)
 			throws OrderException;
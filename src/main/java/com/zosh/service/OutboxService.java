@@ -0,0 +1,14 @@
+package com.zosh.service;
+
+import com.zosh.domain.OutboxEventType;
+
+public interface OutboxService {
+
+    // joins the caller's transaction, the event exists only if that transaction commits
+    void enqueue(OutboxEventType type, Long aggregateId);
+
+    int dispatch();
+
+    int purgeProcessed();
+
+}
@@ -4,6 +4,9 @@ import com.razorpay.PaymentLink;
 import com.razorpay.RazorpayException;
 import com.stripe.exception.StripeException;
 import com.zosh.domain.PaymentMethod;
+import com.zosh.exception.OrderException;
+import com.zosh.model.Address;
+import com.zosh.model.Cart;
 import com.zosh.model.Order;
 import com.zosh.model.PaymentOrder;
 import com.zosh.model.User;
@@ -18,6 +21,11 @@ public interface PaymentService {
     PaymentOrder createOrder(User user,
                              Set<Order> orders);
 
+    // places the cart's orders and their payment order in one transaction
+    PaymentOrder createOrder(User user,
+                             Address shippingAddress,
+                             Cart cart) throws OrderException;
+
     PaymentOrder getPaymentOrderById(Long id) throws Exception;
 
     PaymentOrder getPaymentOrderByPaymentId(String paymentId) throws Exception;
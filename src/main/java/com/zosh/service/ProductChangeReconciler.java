@@ -0,0 +1,182 @@
+package com.zosh.service;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.dto.ProductChangeView;
+import com.zosh.dto.ProductVersionView;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.model.Product;
+import com.zosh.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replays product writes made by other replicas as local
+ * ProductChangedEvents, so the in-memory search index, facet columns,
+ * suggest trie, new arrival rings and listing cache converge on every
+ * instance. Changed rows are found by a keyset scan over updatedAt;
+ * deletes leave no row behind, so they are found by diffing ids whenever
+ * the row count disagrees with the ids this replica knows about.
+ *
+ * Every product's last applied version is remembered, which makes the
+ * scan skip writes this replica already published itself and lets the
+ * scan window overlap the previous one without replaying anything twice.
+ * The scan only reads (id, version, updatedAt); full entities are loaded
+ * for the rows whose version is newer than the one applied here.
+ *
+ * updatedAt always comes from the JVM clock (see Product.updatedAt), and
+ * the watermark never moves past the time the scan started, so a row
+ * stamped by a clock running ahead can't make it skip later writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeReconciler {
+
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCacheInvalidator catalogCacheInvalidator;
+
+    // rows can commit a little after the timestamp they carry, rescan that far back
+    @Value("${catalog.sync.overlap-ms:60000}")
+    private long overlapMs;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime watermark;
+
+    // runs before the index rebuilds, anything they miss is newer than the snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void onApplicationReady() {
+        LocalDateTime last = productRepository.findLastUpdatedAt();
+        for (ProductVersionView row : productRepository.findAllVersions()) {
+            versions.merge(row.getId(), row.getVersion(), Math::max);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        watermark = last == null ? BEGINNING : last.isAfter(now) ? now : last;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        if (event.getType() == ProductChangeType.DELETED) {
+            versions.remove(product.getId());
+        } else {
+            versions.merge(product.getId(), product.getVersion(), Math::max);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.sync.interval-ms:5000}",
+            initialDelayString = "${catalog.sync.interval-ms:5000}")
+    public synchronized void reconcile() {
+        if (watermark == null) {
+            return;
+        }
+        try {
+            int changed = replayChanges();
+            int deleted = replayDeletes();
+            if (changed + deleted > 0) {
+                System.out.println("catalog sync applied " + changed + " changes and " + deleted + " deletes");
+            }
+        } catch (RuntimeException e) {
+            // the watermark only moves past rows that were applied, the next run retries
+            System.out.println("catalog sync failed: " + e.getMessage());
+        }
+    }
+
+    private int replayChanges() {
+        LocalDateTime scanStart = LocalDateTime.now();
+        LocalDateTime from = watermark.minusNanos(overlapMs * 1_000_000);
+        LocalDateTime newest = watermark;
+        Long afterId = 0L;
+        int applied = 0;
+
+        List<ProductChangeView> batch;
+        do {
+            batch = productRepository.findChangedAfter(from, afterId, PageRequest.of(0, SCAN_BATCH_SIZE));
+            List<Long> newer = new ArrayList<>();
+            for (ProductChangeView row : batch) {
+                if (isNewer(row.getId(), row.getVersion())) {
+                    newer.add(row.getId());
+                }
+                from = row.getUpdatedAt();
+                afterId = row.getId();
+                if (from.isAfter(newest) && !from.isAfter(scanStart)) {
+                    newest = from;
+                }
+            }
+            applied += replay(newer);
+            watermark = newest;
+        } while (batch.size() == SCAN_BATCH_SIZE);
+
+        return applied;
+    }
+
+    private boolean isNewer(Long id, long version) {
+        Long seen = versions.get(id);
+        return seen == null || seen < version;
+    }
+
+    private int replay(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Product> changed = new ArrayList<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            // checked again, a local write may have been applied since the scan
+            Long seen = versions.get(product.getId());
+            if (seen == null || seen < product.getVersion()) {
+                ProductChangeType type = seen == null ? ProductChangeType.CREATED : ProductChangeType.UPDATED;
+                eventPublisher.publishEvent(new ProductChangedEvent(product, type, true));
+                changed.add(product);
+            }
+        }
+        if (!changed.isEmpty()) {
+            catalogCacheInvalidator.evict(changed);
+        }
+        return changed.size();
+    }
+
+    private int replayDeletes() {
+        if (productRepository.count() >= versions.size()) {
+            return 0;
+        }
+
+        Set<Long> existing = new HashSet<>(productRepository.findAllIds());
+        List<Product> deleted = new ArrayList<>();
+        for (Long id : versions.keySet()) {
+            if (!existing.contains(id)) {
+                // the row is gone, all the listeners need is the id
+                Product product = new Product();
+                product.setId(id);
+                eventPublisher.publishEvent(new ProductChangedEvent(product, ProductChangeType.DELETED, true));
+                deleted.add(product);
+            }
+        }
+        if (!deleted.isEmpty()) {
+            catalogCacheInvalidator.evict(deleted);
+        }
+        return deleted.size();
+    }
+}
@@ -0,0 +1,10 @@
+package com.zosh.service;
+
+import com.zosh.exception.ProductException;
+import com.zosh.response.ProductDetailResponse;
+
+public interface ProductDetailService {
+
+    ProductDetailResponse getProductDetail(Long productId, String jwt) throws ProductException;
+
+}
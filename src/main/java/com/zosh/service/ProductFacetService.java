@@ -0,0 +1,18 @@
+package com.zosh.service;
+
+import java.util.Map;
+
+public interface ProductFacetService {
+
+    Map<String, Map<String, Integer>> countFacets(String category,
+                                                  String color,
+                                                  String size,
+                                                  Integer minPrice,
+                                                  Integer maxPrice,
+                                                  Integer minDiscount,
+                                                  Double minRating,
+                                                  String stock);
+
+    int rebuild();
+
+}
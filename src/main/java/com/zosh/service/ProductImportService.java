@@ -0,0 +1,21 @@
+package com.zosh.service;
+
+import com.zosh.dto.ProductImportJob;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Seller;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface ProductImportService {
+
+    ProductImportJob importProducts(Seller seller,
+                                    InputStream content,
+                                    String format,
+                                    Integer chunkSize) throws ProductException;
+
+    ProductImportJob getJob(String jobId, Long sellerId) throws ProductException;
+
+    List<ProductImportJob> getJobs(Long sellerId);
+
+}
@@ -0,0 +1,12 @@
+package com.zosh.service;
+
+import com.zosh.dto.ProductCardDto;
+import org.springframework.data.domain.Page;
+
+public interface ProductSearchService {
+
+    Page<ProductCardDto> search(String query, int pageNumber);
+
+    int rebuildIndex();
+
+}
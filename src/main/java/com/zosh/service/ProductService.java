@@ -1,9 +1,12 @@
 package com.zosh.service;
 
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.VersionStampView;
 import com.zosh.exception.ProductException;
 import com.zosh.model.Product;
 import com.zosh.model.Seller;
 import com.zosh.request.CreateProductRequest;
+import com.zosh.response.CursorPage;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -13,6 +16,8 @@ public interface ProductService {
 
                                  Seller seller) throws ProductException;
 
+    List<Product> createProducts(List<CreateProductRequest> requests, Seller seller);
+
     public void deleteProduct(Long productId) throws ProductException;
 
     public Product updateProduct(Long productId,Product product)throws ProductException;
@@ -21,20 +26,38 @@ public interface ProductService {
 
     public Product findProductById(Long id) throws ProductException;
 
+    VersionStampView findProductVersion(Long productId);
+
 
-    public List<Product> searchProduct(String query);
+    public Page<ProductCardDto> searchProduct(String query, Integer pageNumber);
 
-   public Page<Product> getAllProduct(String category,
+   public Page<ProductCardDto> getAllProduct(String category,
                                       String brand,
                                       String colors,
                                       String sizes,
                                       Integer minPrice,
                                       Integer maxPrice,
                                       Integer minDiscount,
+                                      Double minRating,
                                       String sort,
                                       String stock,
                                       Integer pageNumber);
 
-    public List<Product> recentlyAddedProduct();
+    CursorPage<ProductCardDto> getAllProductByCursor(String category,
+                                              String brand,
+                                              String colors,
+                                              String sizes,
+                                              Integer minPrice,
+                                              Integer maxPrice,
+                                              Integer minDiscount,
+                                              Double minRating,
+                                              String sort,
+                                              String stock,
+                                              String cursor,
+                                              boolean includeTotal) throws ProductException;
+
+    public List<ProductCardDto> recentlyAddedProduct(String category, Integer limit);
+
+    List<ProductCardDto> boughtTogether(Long productId, Integer limit);
     List<Product> getProductBySellerId(Long sellerId);
 }
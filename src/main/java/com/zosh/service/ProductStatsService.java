@@ -0,0 +1,11 @@
+package com.zosh.service;
+
+public interface ProductStatsService {
+
+    void recordView(Long productId);
+
+    void recordCartAdd(Long productId);
+
+    int flush();
+
+}
@@ -0,0 +1,11 @@
+package com.zosh.service;
+
+import java.util.List;
+
+public interface ProductSuggestService {
+
+    List<String> suggest(String prefix, int limit);
+
+    int rebuild();
+
+}
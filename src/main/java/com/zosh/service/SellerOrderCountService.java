@@ -0,0 +1,18 @@
+package com.zosh.service;
+
+import com.zosh.domain.OrderStatus;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface SellerOrderCountService {
+
+    // creates (and seeds) the counter rows in their own transaction, call it before writing orders
+    void prepare(Collection<Long> sellerIds);
+
+    // from is null for a new order, to is null for a deleted one; joins the caller's transaction
+    void adjust(Long sellerId, OrderStatus from, OrderStatus to);
+
+    Map<OrderStatus, Long> getCounts(Long sellerId);
+
+}
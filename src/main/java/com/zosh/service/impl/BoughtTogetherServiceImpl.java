@@ -0,0 +1,162 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.service.BoughtTogetherService;
+import com.zosh.utils.CoPurchaseTable;
+import com.zosh.utils.LongLongHashMap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * "Frequently bought together" from order history. Order items are
+ * streamed in order id order through a forward-only cursor; every pair
+ * of distinct products in one order bumps a count in a primitive pair
+ * map. After each pass the top partners per product are published as an
+ * immutable {@link CoPurchaseTable}.
+ *
+ * The counts and the (order date, order id) of the last order seen are
+ * kept, so the daily update only reads orders placed since the previous
+ * pass. Orders younger than a day are left for the next pass so late
+ * cancellations don't count; the watermark follows the same order date
+ * as that cutoff, because ids are handed out in blocks per replica and
+ * are not in time order.
+ */
+@Service
+public class BoughtTogetherServiceImpl implements BoughtTogetherService {
+
+    private static final int TOP_K = 12;
+    private static final int FETCH_SIZE = 1000;
+    private static final int MAX_ITEMS_PER_ORDER = 50;
+
+    private static final String ORDER_ITEMS_SQL =
+            "SELECT oi.order_id, oi.product_id, o.order_date FROM order_item oi " +
+            "JOIN orders o ON o.id = oi.order_id " +
+            "WHERE (o.order_date > ? OR (o.order_date = ? AND oi.order_id > ?)) AND o.order_date < ? " +
+            "AND (o.order_status IS NULL OR o.order_status <> ?) " +
+            "AND oi.product_id IS NOT NULL " +
+            "ORDER BY o.order_date, oi.order_id";
+
+    private static final Timestamp BEGINNING = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    private final JdbcTemplate cursor;
+    private final ExecutorService recommendationExecutor;
+
+    private LongLongHashMap pairCounts = new LongLongHashMap(1 << 16);
+    private Timestamp lastOrderDate = BEGINNING;
+    private long lastOrderId = 0;
+
+    private volatile CoPurchaseTable table = CoPurchaseTable.EMPTY;
+
+    public BoughtTogetherServiceImpl(DataSource dataSource,
+                                     @Qualifier("recommendationExecutor") ExecutorService recommendationExecutor) {
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(FETCH_SIZE);
+        this.recommendationExecutor = recommendationExecutor;
+    }
+
+    @Override
+    public List<Long> partnerIds(Long productId, int limit) {
+        List<Long> ids = new ArrayList<>();
+        for (long id : table.partnersOf(productId, Math.min(Math.max(limit, 1), TOP_K))) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        pairCounts = new LongLongHashMap(1 << 16);
+        lastOrderDate = BEGINNING;
+        lastOrderId = 0;
+        return update();
+    }
+
+    @Override
+    public synchronized int update() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        OrderBuffer buffer = new OrderBuffer();
+
+        cursor.query(ORDER_ITEMS_SQL, (RowCallbackHandler) rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != buffer.orderId) {
+                buffer.flush(pairCounts);
+                buffer.orderId = orderId;
+                buffer.orderDate = rs.getTimestamp(3);
+                buffer.orders++;
+            }
+            buffer.add(rs.getLong(2));
+        }, lastOrderDate, lastOrderDate, lastOrderId, cutoff, OrderStatus.CANCELLED.ordinal());
+        buffer.flush(pairCounts);
+
+        // rows come in (order date, id) order, the last one read is the new watermark
+        if (buffer.orderDate != null) {
+            lastOrderDate = buffer.orderDate;
+            lastOrderId = buffer.orderId;
+        }
+        table = CoPurchaseTable.build(pairCounts, TOP_K);
+        return buffer.orders;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // partners stay empty until the first pass is done, startup does not wait for it
+        recommendationExecutor.execute(() -> {
+            int orders = rebuild();
+            System.out.println("bought together table built from " + orders + " orders, "
+                    + table.productCount() + " products");
+        });
+    }
+
+    @Scheduled(cron = "${recommendation.bought-together.cron:0 30 3 * * *}")
+    public void dailyUpdate() {
+        recommendationExecutor.execute(() -> {
+            int orders = update();
+            System.out.println("bought together table updated with " + orders + " new orders");
+        });
+    }
+
+    private static class OrderBuffer {
+
+        long orderId = -1;
+        Timestamp orderDate;
+        int orders;
+        final long[] products = new long[MAX_ITEMS_PER_ORDER];
+        int size;
+
+        void add(long productId) {
+            // pair keys pack two ids into one long
+            if (productId <= 0 || productId > 0xFFFFFFFFL || size == products.length) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (products[i] == productId) {
+                    return;
+                }
+            }
+            products[size++] = productId;
+        }
+
+        void flush(LongLongHashMap pairCounts) {
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    long low = Math.min(products[i], products[j]);
+                    long high = Math.max(products[i], products[j]);
+                    pairCounts.addTo((low << 32) | high, 1);
+                }
+            }
+            size = 0;
+        }
+    }
+}
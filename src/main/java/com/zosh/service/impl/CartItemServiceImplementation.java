@@ -1,5 +1,6 @@
 package com.zosh.service.impl;
 
+import com.zosh.config.RetryOnConflict;
 import com.zosh.exception.CartItemException;
 import com.zosh.exception.UserException;
 
@@ -8,9 +9,12 @@ import com.zosh.model.CartItem;
 import com.zosh.model.Product;
 import com.zosh.model.User;
 import com.zosh.repository.CartItemRepository;
+import com.zosh.repository.CartRepository;
 import com.zosh.service.CartItemService;
+import com.zosh.utils.CartTotals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -18,17 +22,22 @@ import java.util.Optional;
 public class CartItemServiceImplementation implements CartItemService {
 	
 	private CartItemRepository cartItemRepository;
+	private CartRepository cartRepository;
 
 
 	@Autowired
-	public CartItemServiceImplementation(CartItemRepository cartItemRepository) {
+	public CartItemServiceImplementation(CartItemRepository cartItemRepository,
+										 CartRepository cartRepository) {
 		this.cartItemRepository=cartItemRepository;
+		this.cartRepository=cartRepository;
 
 	}
 
 
 
 	@Override
+	@Transactional
+	@RetryOnConflict
 	public CartItem updateCartItem(Long userId,
 								   Long id, CartItem cartItem)
 			throws CartItemException, UserException {
@@ -38,9 +47,16 @@ public class CartItemServiceImplementation implements CartItemService {
 		
 		if(cartItemUser.getId().equals(userId)) {
 			
+			Cart cart=item.getCart();
+			CartTotals.ensureFresh(cart);
+			CartTotals.remove(cart, item);
+
 			item.setQuantity(cartItem.getQuantity());
 			item.setMrpPrice(item.getQuantity()*item.getProduct().getMrpPrice());
 			item.setSellingPrice(item.getQuantity()*item.getProduct().getSellingPrice());
+
+			CartTotals.add(cart, item);
+			cartRepository.save(cart);
 			
 			return cartItemRepository.save(item);
 				
@@ -54,6 +70,8 @@ public class CartItemServiceImplementation implements CartItemService {
 	
 
 	@Override
+	@Transactional
+	@RetryOnConflict
 	public void removeCartItem(Long userId,Long cartItemId)
 			throws CartItemException,
 			UserException {
@@ -65,6 +83,13 @@ public class CartItemServiceImplementation implements CartItemService {
 		User cartItemUser=cartItem.getCart().getUser();
 
 		if(cartItemUser.getId().equals(userId)) {
+			Cart cart=cartItem.getCart();
+			CartTotals.ensureFresh(cart);
+			CartTotals.remove(cart, cartItem);
+			// keep the cascade from the dirty cart away from the deleted item
+			cart.getCartItems().remove(cartItem);
+			cartRepository.save(cart);
+
 			cartItemRepository.deleteById(cartItem.getId());
 		}
 		else {
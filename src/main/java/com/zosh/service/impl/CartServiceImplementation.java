@@ -1,5 +1,7 @@
 package com.zosh.service.impl;
 
+import com.zosh.domain.CartOperationType;
+import com.zosh.exception.CartItemException;
 import com.zosh.exception.ProductException;
 import com.zosh.model.Cart;
 import com.zosh.model.CartItem;
@@ -7,10 +9,24 @@ import com.zosh.model.Product;
 import com.zosh.model.User;
 import com.zosh.repository.CartItemRepository;
 import com.zosh.repository.CartRepository;
+import com.zosh.repository.ProductRepository;
+import com.zosh.request.CartOperationRequest;
 import com.zosh.service.CartService;
-import jakarta.transaction.Transactional;
+import com.zosh.service.ProductStatsService;
+import com.zosh.config.RetryOnConflict;
+import com.zosh.utils.CartTotals;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,37 +35,39 @@ public class CartServiceImplementation implements CartService {
 
 	private final CartRepository cartRepository;
 	private final CartItemRepository cartItemRepository;
+	private final ProductStatsService productStatsService;
+	private final ProductRepository productRepository;
+
+	private static final int MAX_BATCH_OPERATIONS = 100;
 
 	/**
-	 * Always return a cart.
-	 * If cart does not exist, create it.
+	 * Always return a cart, never writes.
+	 * A user without a cart gets an empty unsaved one,
+	 * it is created by the first item added.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Cart findUserCart(User user) {
 
 		Cart cart = cartRepository.findByUserId(user.getId());
 
-		// ✅ CREATE CART IF NOT EXISTS
 		if (cart == null) {
-			cart = new Cart();
-			cart.setUser(user);
-			cart.setTotalItem(0);
-			cart.setTotalMrpPrice(0);
-			cart.setTotalSellingPrice(0);
-			cart.setDiscount(0);
-			cart.setCouponPrice(0);
-			cart = cartRepository.save(cart);
+			return newCart(user);
 		}
 
-		recalculateCartTotals(cart);
+		// stale totals are recomputed in memory only, the next write stores them
+		CartTotals.ensureFresh(cart);
 
 		return cart;
 	}
 
 	/**
-	 * Add item to cart (cart is guaranteed to exist)
+	 * Add item to cart (cart is created if missing).
+	 * An upsert: a concurrent add of the same product and size fails on
+	 * the unique key, and the retry finds the line and updates it.
 	 */
 	@Override
+	@RetryOnConflict
 	public CartItem addCartItem(
 			User user,
 			Product product,
@@ -57,16 +75,22 @@ public class CartServiceImplementation implements CartService {
 			int quantity
 	) throws ProductException {
 
-		Cart cart = findUserCart(user);
+		recordCartAddOnCommit(product.getId());
+		size = lineSize(size);
+
+		Cart cart = findOrCreateCart(user);
 
 		CartItem existingItem =
 				cartItemRepository.findByCartAndProductAndSize(cart, product, size);
 
 		if (existingItem != null) {
 			// Optional: update quantity instead of returning
+			CartTotals.remove(cart, existingItem);
 			existingItem.setQuantity(existingItem.getQuantity() + quantity);
 			existingItem.setMrpPrice(existingItem.getQuantity() * product.getMrpPrice());
 			existingItem.setSellingPrice(existingItem.getQuantity() * product.getSellingPrice());
+			CartTotals.add(cart, existingItem);
+			cartRepository.save(cart);
 			return cartItemRepository.save(existingItem);
 		}
 
@@ -80,12 +104,15 @@ public class CartServiceImplementation implements CartService {
 		cartItem.setSellingPrice(quantity * product.getSellingPrice());
 
 		cart.getCartItems().add(cartItem);
+		CartTotals.add(cart, cartItem);
+		cartRepository.save(cart);
 
 		return cartItemRepository.save(cartItem);
 	}
 
 	@Override
 	@Transactional
+	@RetryOnConflict
 	public void clearCart(User user) {
 
 		Cart cart = cartRepository.findByUserId(user.getId());
@@ -102,35 +129,154 @@ public class CartServiceImplementation implements CartService {
 
 		cart.setCouponCode(null);
 		cart.setCouponPrice(0);
-		cart.setTotalItem(0);
-		cart.setTotalMrpPrice(0);
-		cart.setTotalSellingPrice(0);
-		cart.setDiscount(0);
+		CartTotals.recalculate(cart);
 
 		cartRepository.save(cart);
 	}
 
 	/**
-	 * Recalculate totals from cart items
+	 * Applies the operations in order against one loaded cart and
+	 * recomputes the totals once. Any invalid operation rolls back the batch.
 	 */
-	private void recalculateCartTotals(Cart cart) {
+	@Override
+	@Transactional(rollbackFor = {ProductException.class, CartItemException.class})
+	@RetryOnConflict
+	public Cart applyOperations(User user, List<CartOperationRequest> operations)
+			throws ProductException, CartItemException {
+
+		if (operations == null || operations.isEmpty()) {
+			return findOrCreateCart(user);
+		}
+		if (operations.size() > MAX_BATCH_OPERATIONS) {
+			throw new CartItemException("at most " + MAX_BATCH_OPERATIONS + " operations per batch");
+		}
 
-		int totalMrp = 0;
-		int totalSelling = 0;
-		int totalQuantity = 0;
+		Cart cart = findOrCreateCart(user);
 
+		// every product the batch adds, in one query
+		Set<Long> productIds = new HashSet<>();
+		for (CartOperationRequest op : operations) {
+			if (op.getType() == CartOperationType.ADD && op.getProductId() != null) {
+				productIds.add(op.getProductId());
+			}
+		}
+		Map<Long, Product> products = new HashMap<>();
+		for (Product product : productRepository.findAllById(productIds)) {
+			products.put(product.getId(), product);
+		}
+
+		Map<Long, CartItem> itemsById = new HashMap<>();
 		for (CartItem item : cart.getCartItems()) {
-			totalMrp += item.getMrpPrice();
-			totalSelling += item.getSellingPrice();
-			totalQuantity += item.getQuantity();
+			itemsById.put(item.getId(), item);
 		}
 
-		cart.setTotalMrpPrice(totalMrp);
-		cart.setTotalSellingPrice(totalSelling - cart.getCouponPrice());
-		cart.setTotalItem(totalQuantity);
-		cart.setDiscount(calculateDiscountPercentage(totalMrp, totalSelling));
+		for (CartOperationRequest op : operations) {
+			if (op.getType() == null) {
+				throw new CartItemException("operation type is required");
+			}
+			switch (op.getType()) {
+				case ADD -> {
+					Product product = products.get(op.getProductId());
+					if (product == null) {
+						throw new ProductException("product not found with id " + op.getProductId());
+					}
+					if (op.getQuantity() <= 0) {
+						throw new CartItemException("quantity must be greater than zero");
+					}
+					recordCartAddOnCommit(product.getId());
 
-		cartRepository.save(cart);
+					String size = lineSize(op.getSize());
+					CartItem item = findItem(cart, product, size);
+					if (item == null) {
+						item = new CartItem();
+						item.setCart(cart);
+						item.setProduct(product);
+						item.setSize(size);
+						item.setUserId(user.getId());
+						cart.getCartItems().add(item);
+					}
+					setQuantity(item, item.getQuantity() + op.getQuantity());
+				}
+				case UPDATE, REMOVE -> {
+					CartItem item = itemsById.get(op.getCartItemId());
+					if (item == null || !cart.getCartItems().contains(item)) {
+						throw new CartItemException("cartItem not found with id : " + op.getCartItemId());
+					}
+					if (op.getType() == CartOperationType.REMOVE || op.getQuantity() <= 0) {
+						// orphan removal deletes the row
+						cart.getCartItems().remove(item);
+					} else {
+						setQuantity(item, op.getQuantity());
+					}
+				}
+			}
+		}
+
+		CartTotals.recalculate(cart);
+		return cartRepository.save(cart);
+	}
+
+	// a retried attempt must not count the same add twice
+	private void recordCartAddOnCommit(Long productId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			productStatsService.recordCartAdd(productId);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				productStatsService.recordCartAdd(productId);
+			}
+		});
+	}
+
+	private CartItem findItem(Cart cart, Product product, String size) {
+		for (CartItem item : cart.getCartItems()) {
+			if (item.getProduct().getId().equals(product.getId()) && Objects.equals(item.getSize(), size)) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	// the unique key on (cart, product, size) only holds for non-null sizes
+	private static String lineSize(String size) {
+		return size == null ? "" : size;
+	}
+
+	private void setQuantity(CartItem item, int quantity) {
+		item.setQuantity(quantity);
+		item.setMrpPrice(quantity * item.getProduct().getMrpPrice());
+		item.setSellingPrice(quantity * item.getProduct().getSellingPrice());
+	}
+
+	/**
+	 * Cart for a write path, created if missing, totals made fresh
+	 * before the caller applies its change.
+	 */
+	private Cart findOrCreateCart(User user) {
+
+		Cart cart = cartRepository.findByUserId(user.getId());
+
+		// ✅ CREATE CART IF NOT EXISTS
+		if (cart == null) {
+			cart = cartRepository.save(newCart(user));
+		}
+
+		CartTotals.ensureFresh(cart);
+		return cart;
+	}
+
+	private Cart newCart(User user) {
+		Cart cart = new Cart();
+		cart.setUser(user);
+		cart.setTotalItem(0);
+		cart.setTotalMrpPrice(0);
+		cart.setTotalSellingPrice(0);
+		cart.setDiscount(0);
+		cart.setCouponPrice(0);
+		cart.setTotalsValid(true);
+		return cart;
 	}
 
 	public static int calculateDiscountPercentage(double mrpPrice, double sellingPrice) {
@@ -0,0 +1,169 @@
+package com.zosh.service.impl;
+
+import com.zosh.model.Category;
+import com.zosh.repository.CategoryRepository;
+import com.zosh.service.CategoryTreeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the whole category hierarchy in memory as an immutable snapshot.
+ * Reads never lock; writers build a new snapshot and swap it in.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryTreeServiceImpl implements CategoryTreeService {
+
+    // unknown ids may have been created on another instance, but don't let
+    // a stream of bad ids turn into a stream of full reloads
+    private static final long MISS_REFRESH_INTERVAL_MS = 30_000;
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    private volatile long lastRefreshMillis;
+
+    @Override
+    public Category findOrCreate(String categoryId, int level, Category parent) {
+        Node node = snapshot().byCategoryId().get(categoryId);
+        if (node != null) {
+            return node.category();
+        }
+
+        synchronized (this) {
+            node = snapshot().byCategoryId().get(categoryId);
+            if (node != null) {
+                return node.category();
+            }
+
+            Category category = categoryRepository.findByCategoryId(categoryId);
+            if (category == null) {
+                category = new Category();
+                category.setCategoryId(categoryId);
+                category.setLevel(level);
+                category.setParentCategory(parent);
+                category.setName(categoryId == null ? null : categoryId.replace("_", " "));
+                category = categoryRepository.save(category);
+            }
+
+            snapshot = snapshot.with(category);
+            return category;
+        }
+    }
+
+    @Override
+    public Category findByCategoryId(String categoryId) {
+        Node node = lookup(categoryId);
+        return node != null ? node.category() : null;
+    }
+
+    @Override
+    public Set<Long> descendantIds(String categoryId) {
+        Node node = lookup(categoryId);
+        return node != null ? node.descendantIds() : Collections.emptySet();
+    }
+
+    @Override
+    public synchronized void refresh() {
+        snapshot = Snapshot.build(categoryRepository.findAll());
+        lastRefreshMillis = System.currentTimeMillis();
+    }
+
+    private Node lookup(String categoryId) {
+        Node node = snapshot().byCategoryId().get(categoryId);
+        if (node == null
+                && System.currentTimeMillis() - lastRefreshMillis > MISS_REFRESH_INTERVAL_MS) {
+            refresh();
+            node = snapshot.byCategoryId().get(categoryId);
+        }
+        return node;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private record Node(Category category, Set<Long> descendantIds) {
+    }
+
+    private record Snapshot(Map<String, Node> byCategoryId, Map<Long, Node> byId) {
+
+        static Snapshot build(List<Category> categories) {
+            Map<Long, List<Category>> children = new HashMap<>();
+            for (Category category : categories) {
+                Category parent = category.getParentCategory();
+                if (parent != null) {
+                    children.computeIfAbsent(parent.getId(), k -> new ArrayList<>()).add(category);
+                }
+            }
+
+            Map<String, Node> byCategoryId = new HashMap<>();
+            Map<Long, Node> byId = new HashMap<>();
+            for (Category category : categories) {
+                Set<Long> descendants = new HashSet<>();
+                collect(category, children, descendants);
+                Node node = new Node(category, Collections.unmodifiableSet(descendants));
+                byCategoryId.put(category.getCategoryId(), node);
+                byId.put(category.getId(), node);
+            }
+            return new Snapshot(Collections.unmodifiableMap(byCategoryId),
+                    Collections.unmodifiableMap(byId));
+        }
+
+        private static void collect(Category category,
+                                    Map<Long, List<Category>> children,
+                                    Set<Long> into) {
+            if (!into.add(category.getId())) {
+                return;
+            }
+            for (Category child : children.getOrDefault(category.getId(), List.of())) {
+                collect(child, children, into);
+            }
+        }
+
+        // copy-on-write: only the new node and its ancestors get new sets
+        Snapshot with(Category category) {
+            Map<String, Node> nextByCategoryId = new HashMap<>(byCategoryId);
+            Map<Long, Node> nextById = new HashMap<>(byId);
+
+            Node node = new Node(category, Set.of(category.getId()));
+            nextByCategoryId.put(category.getCategoryId(), node);
+            nextById.put(category.getId(), node);
+
+            Category parent = category.getParentCategory();
+            while (parent != null) {
+                Node ancestor = nextById.get(parent.getId());
+                if (ancestor == null) {
+                    break;
+                }
+                Set<Long> descendants = new HashSet<>(ancestor.descendantIds());
+                descendants.add(category.getId());
+                Node updated = new Node(ancestor.category(), Collections.unmodifiableSet(descendants));
+                nextByCategoryId.put(ancestor.category().getCategoryId(), updated);
+                nextById.put(parent.getId(), updated);
+                parent = ancestor.category().getParentCategory();
+            }
+
+            return new Snapshot(Collections.unmodifiableMap(nextByCategoryId),
+                    Collections.unmodifiableMap(nextById));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.zosh.repository.CartRepository;
 import com.zosh.repository.CouponRepository;
 import com.zosh.repository.UserRepository;
 import com.zosh.service.CouponService;
+import com.zosh.utils.CartTotals;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -32,6 +33,7 @@ public class CouponServiceImpl implements CouponService {
             throws Exception {
         Coupon coupon = couponRepository.findByCode(code);
         Cart cart = cartRepository.findByUserId(user.getId());
+        CartTotals.ensureFresh(cart);
 
 
         if (coupon==null) {
@@ -76,6 +78,7 @@ public class CouponServiceImpl implements CouponService {
         user.getUsedCoupons().remove(coupon);
 
         Cart cart = cartRepository.findByUserId(user.getId());
+        CartTotals.ensureFresh(cart);
 //        double discountedPrice = (cart.getTotalSellingPrice() * coupon.getDiscountPercentage()) / 100;
 //        cart.setTotalSellingPrice(cart.getTotalSellingPrice() + discountedPrice);
         cart.setTotalSellingPrice(cart.getTotalSellingPrice()+cart.getCouponPrice());
@@ -0,0 +1,325 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.StockSource;
+import com.zosh.exception.ProductException;
+import com.zosh.model.FlashSale;
+import com.zosh.repository.FlashSaleRepository;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.FlashSaleService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flash-sale stock for hot products. While a sale is active every replica
+ * claims blocks of units from Product.quantity (one conditional UPDATE per
+ * block) and hands them out of an in-memory counter, so checkouts don't
+ * queue on the product row lock.
+ *
+ * Blocks are claimed on a background thread, by every refresh and
+ * whenever a pool drops below half a block, never by a checkout: each
+ * checkout already holds a connection, and a claim in its own transaction
+ * would need a second one. A checkout that finds the pool dry takes its
+ * units from the product row in its own transaction instead.
+ *
+ * Claimed units are already gone from Product.quantity; sold units are
+ * reported to the flash_sale row and unsold ones returned to the product
+ * on the next refresh after the sale ends, and on shutdown. A replica that
+ * dies holding tokens undersells, it never oversells. Units sold in a
+ * sale and later returned by a cancel or an expired reservation are taken
+ * back out of the sold count.
+ */
+@Service
+public class FlashSaleServiceImpl implements FlashSaleService {
+
+    private final ProductRepository productRepository;
+    private final FlashSaleRepository flashSaleRepository;
+    private final TransactionTemplate ownTransaction;
+    private final ExecutorService flashSaleExecutor;
+
+    @Value("${flash-sale.default-block-size:50}")
+    private int defaultBlockSize;
+
+    private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+
+    public FlashSaleServiceImpl(ProductRepository productRepository,
+                                FlashSaleRepository flashSaleRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("flashSaleExecutor") ExecutorService flashSaleExecutor) {
+        this.productRepository = productRepository;
+        this.flashSaleRepository = flashSaleRepository;
+        this.flashSaleExecutor = flashSaleExecutor;
+        // claims and returns commit on their own, whatever happens to the checkout
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public FlashSale startFlashSale(Long productId, Integer blockSize) throws ProductException {
+        if (!productRepository.existsById(productId)) {
+            throw new ProductException("product not found with id " + productId);
+        }
+        FlashSale sale = flashSaleRepository.findByProductId(productId);
+        if (sale == null) {
+            sale = new FlashSale();
+            sale.setProductId(productId);
+        }
+        sale.setBlockSize(blockSize != null && blockSize > 0 ? blockSize : defaultBlockSize);
+        sale.setActive(true);
+        sale.setStartedAt(LocalDateTime.now());
+        sale.setEndedAt(null);
+        FlashSale saved = flashSaleRepository.save(sale);
+
+        // the other replicas pick it up on their next refresh
+        refresh();
+        return saved;
+    }
+
+    @Override
+    public FlashSale endFlashSale(Long productId) throws ProductException {
+        FlashSale sale = flashSaleRepository.findByProductId(productId);
+        if (sale == null || !sale.isActive()) {
+            throw new ProductException("no active flash sale for product " + productId);
+        }
+        sale.setActive(false);
+        sale.setEndedAt(LocalDateTime.now());
+        flashSaleRepository.save(sale);
+
+        refresh();
+        return flashSaleRepository.findByProductId(productId);
+    }
+
+    @Override
+    public List<FlashSale> getFlashSales() {
+        return flashSaleRepository.findAll();
+    }
+
+    @Override
+    public StockSource takeStock(Long productId, int quantity) {
+        Pool pool = pools.get(productId);
+        if (pool == null) {
+            return productRepository.takeStock(productId, quantity, LocalDateTime.now()) == 1 ? StockSource.PRODUCT : null;
+        }
+
+        boolean fromPool = pool.tryTake(quantity);
+        if (!fromPool && pool.closed) {
+            // the sale ended in the meantime, this is an ordinary checkout again
+            return productRepository.takeStock(productId, quantity, LocalDateTime.now()) == 1 ? StockSource.PRODUCT : null;
+        }
+        if (pool.available.get() < pool.lowWaterMark()) {
+            requestTopUp();
+        }
+        // dry until the next block lands; the row decrement is part of the
+        // checkout's own transaction and rolls back with it
+        if (!fromPool && productRepository.takeStock(productId, quantity, LocalDateTime.now()) == 0) {
+            return null;
+        }
+        pool.sold.add(quantity);
+
+        // a checkout that rolls back gives its tokens back and is no longer a sale
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        pool.sold.add(-quantity);
+                        if (fromPool) {
+                            giveBack(productId, pool, quantity);
+                        }
+                    }
+                }
+            });
+        }
+        return StockSource.FLASH_SALE;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustSold(Long productId, int delta) {
+        // straight to the row, so it commits or rolls back with the caller
+        flashSaleRepository.addSold(productId, delta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        refresh();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${flash-sale.refresh-interval-ms:5000}")
+    public synchronized int refresh() {
+        Map<Long, Integer> active = new HashMap<>();
+        for (FlashSale sale : flashSaleRepository.findByActiveTrue()) {
+            active.put(sale.getProductId(), sale.getBlockSize() > 0 ? sale.getBlockSize() : defaultBlockSize);
+        }
+
+        for (Map.Entry<Long, Integer> entry : active.entrySet()) {
+            pools.computeIfAbsent(entry.getKey(), id -> new Pool(entry.getValue()));
+        }
+        for (Map.Entry<Long, Pool> entry : pools.entrySet()) {
+            if (!active.containsKey(entry.getKey())) {
+                drain(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<Long, Pool> entry : pools.entrySet()) {
+            reportSold(entry.getKey(), entry.getValue());
+            entry.getValue().exhausted = false;
+        }
+        topUp();
+        return pools.size();
+    }
+
+    private void requestTopUp() {
+        flashSaleExecutor.execute(this::topUp);
+    }
+
+    // claims one block for every open pool below its low-water mark
+    private synchronized void topUp() {
+        for (Map.Entry<Long, Pool> entry : pools.entrySet()) {
+            Long productId = entry.getKey();
+            Pool pool = entry.getValue();
+            if (pool.closed || pool.exhausted || pool.available.get() >= pool.lowWaterMark()) {
+                continue;
+            }
+
+            int claimed;
+            try {
+                claimed = claim(productId, pool.blockSize);
+            } catch (RuntimeException e) {
+                System.out.println("flash sale claim failed for product " + productId + ": " + e.getMessage());
+                continue;
+            }
+            if (claimed == 0) {
+                // nothing left on the row; checkouts fail on it until a restock shows up on the next refresh
+                pool.exhausted = true;
+                continue;
+            }
+            pool.claimed.add(claimed);
+
+            boolean added;
+            synchronized (pool) {
+                added = !pool.closed;
+                if (added) {
+                    pool.available.addAndGet(claimed);
+                }
+            }
+            if (!added) {
+                ownTransaction.executeWithoutResult(status -> productRepository.returnStock(productId, claimed, LocalDateTime.now()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void drainAll() {
+        for (Map.Entry<Long, Pool> entry : pools.entrySet()) {
+            drain(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // claims up to `wanted` units, or whatever is left when that is less
+    private int claim(Long productId, int wanted) {
+        Integer claimed = ownTransaction.execute(status -> {
+            if (productRepository.takeStock(productId, wanted, LocalDateTime.now()) == 1) {
+                return wanted;
+            }
+            Integer left = productRepository.findQuantity(productId);
+            if (left != null && left > 0 && productRepository.takeStock(productId, left, LocalDateTime.now()) == 1) {
+                return left;
+            }
+            return 0;
+        });
+        return claimed == null ? 0 : claimed;
+    }
+
+    private void giveBack(Long productId, Pool pool, int quantity) {
+        synchronized (pool) {
+            if (!pool.closed) {
+                pool.available.addAndGet(quantity);
+                return;
+            }
+        }
+        ownTransaction.executeWithoutResult(status -> productRepository.returnStock(productId, quantity, LocalDateTime.now()));
+    }
+
+    private void drain(Long productId, Pool pool) {
+        int unsold;
+        synchronized (pool) {
+            pool.closed = true;
+            unsold = pool.available.getAndSet(0);
+        }
+        pools.remove(productId, pool);
+        if (unsold > 0) {
+            ownTransaction.executeWithoutResult(status -> productRepository.returnStock(productId, unsold, LocalDateTime.now()));
+        }
+        reportSold(productId, pool);
+        System.out.println("flash sale ended for product " + productId + ", claimed " + pool.claimed.sum()
+                + ", sold " + pool.sold.sum() + ", returned " + unsold);
+    }
+
+    private void reportSold(Long productId, Pool pool) {
+        long sold = pool.sold.sum();
+        long delta = sold - pool.reportedSold;
+        if (delta != 0) {
+            ownTransaction.executeWithoutResult(status -> flashSaleRepository.addSold(productId, delta));
+            pool.reportedSold = sold;
+        }
+    }
+
+    private static class Pool {
+
+        final int blockSize;
+        final AtomicInteger available = new AtomicInteger();
+        final LongAdder claimed = new LongAdder();
+        final LongAdder sold = new LongAdder();
+
+        // written under the pool monitor, read without it by checkouts
+        volatile boolean closed;
+
+        // the last claim found the row empty; cleared by every refresh so a
+        // restock is picked up, only touched by the synchronized methods
+        boolean exhausted;
+
+        // only touched by refresh() and drainAll(), which are synchronized
+        long reportedSold;
+
+        Pool(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+        int lowWaterMark() {
+            return Math.max(1, blockSize / 2);
+        }
+
+        boolean tryTake(int quantity) {
+            while (true) {
+                int current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.CartOperationType;
+import com.zosh.dto.GuestCartItemDto;
+import com.zosh.dto.ProductCardDto;
+import com.zosh.exception.CartItemException;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Cart;
+import com.zosh.model.User;
+import com.zosh.repository.ProductRepository;
+import com.zosh.request.CartOperationRequest;
+import com.zosh.response.GuestCartResponse;
+import com.zosh.service.CartService;
+import com.zosh.service.CatalogCacheInvalidator;
+import com.zosh.service.GuestCartService;
+import com.zosh.utils.GuestCartCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Anonymous carts that live only in a signed token on the client, so
+ * browsing never creates cart rows. Every read prices the lines again
+ * from the product price cache and drops products that are gone; the
+ * token only carries ids, sizes and quantities.
+ */
+@Service
+public class GuestCartServiceImpl implements GuestCartService {
+
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final ProductRepository productRepository;
+    private final CartService cartService;
+    private final CacheManager cacheManager;
+    private final GuestCartCodec codec;
+
+    public GuestCartServiceImpl(ProductRepository productRepository,
+                                CartService cartService,
+                                CacheManager cacheManager,
+                                Environment environment,
+                                @Value("${guest-cart.secret:}") String secret) {
+        this.productRepository = productRepository;
+        this.cartService = cartService;
+        this.cacheManager = cacheManager;
+
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // with a per-process key a cart reads as empty whenever the
+            // load balancer sends them to another replica
+            if (!environment.acceptsProfiles(Profiles.of("local"))) {
+                throw new IllegalStateException("guest-cart.secret (GUEST_CART_SECRET) must be set outside the local profile");
+            }
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            System.out.println("guest-cart.secret is not set, guest carts won't survive a restart");
+        } else {
+            if (secret.length() < MIN_SECRET_LENGTH) {
+                throw new IllegalStateException("guest-cart.secret must be at least " + MIN_SECRET_LENGTH + " characters");
+            }
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.codec = new GuestCartCodec(key);
+    }
+
+    @Override
+    public GuestCartResponse getCart(String token) {
+        return price(codec.decode(token));
+    }
+
+    @Override
+    public GuestCartResponse addItem(String token, Long productId, String size, int quantity)
+            throws ProductException, CartItemException {
+        if (quantity <= 0) {
+            throw new CartItemException("quantity must be greater than zero");
+        }
+        if (productId == null || !prices(List.of(productId)).containsKey(productId)) {
+            throw new ProductException("product not found with id " + productId);
+        }
+
+        List<GuestCartCodec.Line> lines = codec.decode(token);
+        for (int i = 0; i < lines.size(); i++) {
+            GuestCartCodec.Line line = lines.get(i);
+            if (line.productId() == productId && Objects.equals(line.size(), size)) {
+                lines.set(i, new GuestCartCodec.Line(productId, size,
+                        Math.min(line.quantity() + quantity, GuestCartCodec.MAX_QUANTITY)));
+                return price(lines);
+            }
+        }
+        if (lines.size() >= GuestCartCodec.MAX_LINES) {
+            throw new CartItemException("guest cart is full, sign in to add more items");
+        }
+        lines.add(new GuestCartCodec.Line(productId, size, Math.min(quantity, GuestCartCodec.MAX_QUANTITY)));
+        return price(lines);
+    }
+
+    @Override
+    public GuestCartResponse updateItem(String token, Long productId, String size, int quantity) {
+        List<GuestCartCodec.Line> lines = new ArrayList<>();
+        for (GuestCartCodec.Line line : codec.decode(token)) {
+            if (!Objects.equals(line.productId(), productId) || !Objects.equals(line.size(), size)) {
+                lines.add(line);
+            } else if (quantity > 0) {
+                lines.add(new GuestCartCodec.Line(line.productId(), size,
+                        Math.min(quantity, GuestCartCodec.MAX_QUANTITY)));
+            }
+        }
+        return price(lines);
+    }
+
+    @Override
+    public Cart mergeIntoUserCart(User user, String token) throws ProductException, CartItemException {
+        List<GuestCartCodec.Line> lines = codec.decode(token);
+        if (lines.isEmpty()) {
+            return null;
+        }
+
+        // products deleted since they were added are skipped, not an error
+        Map<Long, ProductCardDto> cards = prices(lines.stream().map(GuestCartCodec.Line::productId).toList());
+        List<CartOperationRequest> operations = new ArrayList<>();
+        for (GuestCartCodec.Line line : lines) {
+            if (cards.containsKey(line.productId())) {
+                operations.add(new CartOperationRequest(CartOperationType.ADD,
+                        line.productId(), line.size(), null, line.quantity()));
+            }
+        }
+        return operations.isEmpty() ? null : cartService.applyOperations(user, operations);
+    }
+
+    private GuestCartResponse price(List<GuestCartCodec.Line> lines) {
+        Map<Long, ProductCardDto> cards = prices(lines.stream().map(GuestCartCodec.Line::productId).toList());
+
+        GuestCartResponse res = new GuestCartResponse();
+        List<GuestCartCodec.Line> kept = new ArrayList<>();
+        for (GuestCartCodec.Line line : lines) {
+            ProductCardDto card = cards.get(line.productId());
+            if (card == null) {
+                continue;
+            }
+            kept.add(line);
+
+            GuestCartItemDto item = new GuestCartItemDto();
+            item.setProduct(card);
+            item.setSize(line.size());
+            item.setQuantity(line.quantity());
+            item.setMrpPrice(line.quantity() * card.getMrpPrice());
+            item.setSellingPrice(line.quantity() * card.getSellingPrice());
+            res.getCartItems().add(item);
+
+            res.setTotalItem(res.getTotalItem() + item.getQuantity());
+            res.setTotalMrpPrice(res.getTotalMrpPrice() + item.getMrpPrice());
+            res.setTotalSellingPrice(res.getTotalSellingPrice() + item.getSellingPrice());
+        }
+        res.setDiscount(CartServiceImplementation.calculateDiscountPercentage(
+                res.getTotalMrpPrice(), res.getTotalSellingPrice()));
+        res.setToken(codec.encode(kept));
+        return res;
+    }
+
+    // cached cards, misses are loaded together in one query
+    private Map<Long, ProductCardDto> prices(Collection<Long> productIds) {
+        Cache cache = cacheManager.getCache(CatalogCacheInvalidator.PRODUCT_PRICES_CACHE);
+        Map<Long, ProductCardDto> cards = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+        for (Long id : productIds) {
+            ProductCardDto card = cache == null ? null : cache.get(id, ProductCardDto.class);
+            if (card != null) {
+                cards.put(id, card);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (ProductCardDto card : productRepository.findCardsByIds(misses)) {
+                cards.put(card.getId(), card);
+                if (cache != null) {
+                    cache.put(card.getId(), card);
+                }
+            }
+        }
+        return cards;
+    }
+}
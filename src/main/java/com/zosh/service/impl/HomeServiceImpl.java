@@ -5,7 +5,9 @@ import com.zosh.model.Deal;
 import com.zosh.model.Home;
 import com.zosh.model.HomeCategory;
 import com.zosh.repository.DealRepository;
+import com.zosh.repository.HomeCategoryRepository;
 import com.zosh.service.HomeService;
+import com.zosh.utils.ETags;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +21,8 @@ public class HomeServiceImpl implements HomeService {
 
     private final DealRepository dealRepository;
 
+    private final HomeCategoryRepository homeCategoryRepository;
+
 
 
     @Override
@@ -49,7 +53,12 @@ public class HomeServiceImpl implements HomeService {
         if (dealRepository.findAll().isEmpty()) {
             List<Deal> deals = allCategories.stream()
                     .filter(category -> category.getSection() == HomeCategorySection.DEALS)
-                    .map(category -> new Deal(null, 10, category))  // Assuming a discount of 10 for each deal
+                    .map(category -> {
+                        Deal deal = new Deal();
+                        deal.setDiscount(10);  // Assuming a discount of 10 for each deal
+                        deal.setCategory(category);
+                        return deal;
+                    })
                     .collect(Collectors.toList());
             createdDeals = dealRepository.saveAll(deals);
         } else createdDeals = dealRepository.findAll();
@@ -65,5 +74,12 @@ public class HomeServiceImpl implements HomeService {
         return home;
     }
 
+    @Override
+    public String homePageETag() {
+        return ETags.of("home",
+                homeCategoryRepository.findVersionStamp(),
+                dealRepository.findVersionStamp());
+    }
+
 
 }
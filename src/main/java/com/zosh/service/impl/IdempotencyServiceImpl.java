@@ -0,0 +1,281 @@
+package com.zosh.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zosh.domain.IdempotencyStatus;
+import com.zosh.exception.IdempotencyException;
+import com.zosh.model.IdempotencyRecord;
+import com.zosh.repository.IdempotencyRecordRepository;
+import com.zosh.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency keys backed by the idempotency_record table. The unique
+ * constraint on (scope, user, key) decides which request runs; the others
+ * wait for it to finish, on a local future when it runs on this instance
+ * and by polling the row otherwise, and then replay the stored response.
+ *
+ * A request that throws releases its key so the client can retry it,
+ * unless it already saved a checkpoint: then the key is kept as
+ * INTERRUPTED and the retry resumes from the checkpoint, so work that was
+ * committed (orders, reservations) is not done a second time. A claim that
+ * is never completed (the instance died) expires after the in-flight lease
+ * and can be taken over, from its checkpoint if it saved one.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long MAX_POLL_MS = 500;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate ownTransaction;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.in-flight-seconds:120}")
+    private long inFlightSeconds;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    private final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyRecordRepository recordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        // the claim has to be visible to other requests before the call starts
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(String scope,
+                                         Long userId,
+                                         String key,
+                                         Object request,
+                                         Class<T> responseType,
+                                         IdempotentCall<T> call) throws Exception {
+        if (key == null || key.isBlank()) {
+            return call.call(new LocalProgress());
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IdempotencyException(HEADER + " can't be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(objectMapper.writeValueAsString(request));
+        String localKey = scope + ":" + userId + ":" + key;
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        long pollMs = 20;
+
+        while (true) {
+            IdempotencyRecord existing = recordRepository.findByScopeAndUserIdAndIdempotencyKey(scope, userId, key);
+
+            if (existing == null) {
+                IdempotencyRecord claimed = tryClaim(scope, userId, key, requestHash);
+                if (claimed != null) {
+                    return runClaimed(claimed, localKey, call);
+                }
+                // someone else claimed it in between, look again
+                continue;
+            }
+
+            boolean expired = existing.getExpiresAt().isBefore(LocalDateTime.now());
+            boolean sameRequest = existing.getRequestHash().equals(requestHash);
+            if (sameRequest && isResumable(existing, expired)) {
+                if (tryResume(existing)) {
+                    return runClaimed(existing, localKey, call);
+                }
+                // someone else resumed it first, look again
+                continue;
+            }
+            if (expired) {
+                ownTransaction.executeWithoutResult(status ->
+                        recordRepository.deleteIfExpired(existing.getId(), LocalDateTime.now()));
+                continue;
+            }
+            if (!sameRequest) {
+                throw new IdempotencyException(HEADER + " " + key + " was already used for a different request");
+            }
+            if (existing.getStatus() == IdempotencyStatus.COMPLETED) {
+                return replay(existing, responseType);
+            }
+
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) {
+                throw new IdempotencyException("a request with " + HEADER + " " + key + " is still in progress");
+            }
+            CompletableFuture<Void> local = running.get(localKey);
+            if (local != null) {
+                try {
+                    local.get(left, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // checked again on the next round
+                }
+            } else {
+                Thread.sleep(Math.min(pollMs, left));
+                pollMs = Math.min(pollMs * 2, MAX_POLL_MS);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        Integer purged = ownTransaction.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        return purged == null ? 0 : purged;
+    }
+
+    private IdempotencyRecord tryClaim(String scope, Long userId, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScope(scope);
+        record.setUserId(userId);
+        record.setIdempotencyKey(key);
+        record.setRequestHash(requestHash);
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plusSeconds(inFlightSeconds));
+        try {
+            return ownTransaction.execute(status -> recordRepository.saveAndFlush(record));
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    // an earlier attempt got past its checkpoint and then failed or died
+    private boolean isResumable(IdempotencyRecord record, boolean expired) {
+        if (record.getCheckpoint() == null) {
+            return false;
+        }
+        return record.getStatus() == IdempotencyStatus.INTERRUPTED ? !expired
+                : record.getStatus() == IdempotencyStatus.IN_PROGRESS && expired;
+    }
+
+    private boolean tryResume(IdempotencyRecord record) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer resumed = ownTransaction.execute(status -> recordRepository.resume(record.getId(),
+                IdempotencyStatus.IN_PROGRESS,
+                IdempotencyStatus.INTERRUPTED,
+                now.plusSeconds(inFlightSeconds),
+                now));
+        return resumed != null && resumed == 1;
+    }
+
+    private <T> ResponseEntity<T> runClaimed(IdempotencyRecord claimed,
+                                             String localKey,
+                                             IdempotentCall<T> call) throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        running.put(localKey, done);
+        RecordProgress progress = new RecordProgress(claimed);
+        try {
+            ResponseEntity<T> response;
+            try {
+                response = call.call(progress);
+            } catch (Exception | Error e) {
+                if (progress.checkpoint() != null) {
+                    // part of the call is committed, keep the key so the retry resumes it
+                    ownTransaction.executeWithoutResult(status -> recordRepository.interrupt(claimed.getId(),
+                            IdempotencyStatus.INTERRUPTED,
+                            LocalDateTime.now().plusHours(ttlHours)));
+                } else {
+                    // nothing to replay, let the client try again with the same key
+                    ownTransaction.executeWithoutResult(status -> recordRepository.deleteById(claimed.getId()));
+                }
+                throw e;
+            }
+
+            try {
+                String body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+                ownTransaction.executeWithoutResult(status -> recordRepository.complete(claimed.getId(),
+                        IdempotencyStatus.COMPLETED,
+                        response.getStatusCode().value(),
+                        body,
+                        LocalDateTime.now().plusHours(ttlHours)));
+            } catch (Exception e) {
+                // the call already happened, don't fail it; duplicates wait until the lease runs out
+                System.out.println("could not store response for idempotency record " + claimed.getId() + ": " + e.getMessage());
+            }
+            return response;
+        } finally {
+            running.remove(localKey, done);
+            done.complete(null);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, Class<T> responseType) throws Exception {
+        T body = record.getResponseBody() == null ? null : objectMapper.readValue(record.getResponseBody(), responseType);
+        return ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private class RecordProgress implements Progress {
+
+        private final Long recordId;
+        private String checkpoint;
+
+        RecordProgress(IdempotencyRecord record) {
+            this.recordId = record.getId();
+            this.checkpoint = record.getCheckpoint();
+        }
+
+        @Override
+        public String checkpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public void save(String checkpoint) {
+            ownTransaction.executeWithoutResult(status -> recordRepository.saveCheckpoint(recordId, checkpoint));
+            this.checkpoint = checkpoint;
+        }
+    }
+
+    // without a key there is nothing to resume later
+    private static class LocalProgress implements Progress {
+
+        private String checkpoint;
+
+        @Override
+        public String checkpoint() {
+            return checkpoint;
+        }
+
+        @Override
+        public void save(String checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
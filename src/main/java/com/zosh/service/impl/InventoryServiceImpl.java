@@ -0,0 +1,191 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.ReservationStatus;
+import com.zosh.domain.StockSource;
+import com.zosh.exception.OrderException;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Order;
+import com.zosh.model.OrderItem;
+import com.zosh.model.Product;
+import com.zosh.model.StockReservation;
+import com.zosh.repository.ProductRepository;
+import com.zosh.repository.StockReservationRepository;
+import com.zosh.service.FlashSaleService;
+import com.zosh.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock is taken from Product.quantity at checkout with a conditional
+ * UPDATE (quantity >= wanted), so concurrent checkouts of the same product
+ * are serialized by the row lock and never read-modify-write the count.
+ * Every order line gets a HELD reservation with a TTL; payment commits it,
+ * a failed payment, a cancel or the expiry sweep give the stock back.
+ *
+ * Reservation status changes are compare-and-set updates, so whichever of
+ * payment, cancel and expiry gets there first wins and stock is returned
+ * at most once.
+ */
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final int SWEEP_BATCH = 200;
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final FlashSaleService flashSaleService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.reservation.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, rollbackFor = OrderException.class)
+    public void reserve(Collection<Order> orders) throws OrderException {
+        // one decrement per product, in id order so concurrent multi-item
+        // checkouts lock the product rows in the same order and can't deadlock
+        Map<Long, Integer> wanted = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getOrderItems()) {
+                wanted.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        Map<Long, StockSource> sources = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : wanted.entrySet()) {
+            // hot products in a flash sale are served from in-memory tokens instead of the row
+            StockSource source = flashSaleService.takeStock(entry.getKey(), entry.getValue());
+            if (source == null) {
+                // the caller's transaction rolls back every decrement made so far
+                throw new OrderException("not enough stock for product " + entry.getKey());
+            }
+            sources.put(entry.getKey(), source);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Order order : orders) {
+            Map<Long, Integer> lines = new TreeMap<>();
+            for (OrderItem item : order.getOrderItems()) {
+                lines.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                StockReservation reservation = new StockReservation();
+                reservation.setOrderId(order.getId());
+                reservation.setProductId(line.getKey());
+                reservation.setQuantity(line.getValue());
+                reservation.setFlashSale(sources.get(line.getKey()) == StockSource.FLASH_SALE);
+                reservation.setCreatedAt(now);
+                reservation.setExpiresAt(now.plusMinutes(ttlMinutes));
+                reservations.add(reservation);
+            }
+        }
+        stockReservationRepository.saveAll(reservations);
+    }
+
+    @Override
+    @Transactional
+    public void commit(Collection<Order> orders) {
+        for (StockReservation reservation : reservationsOf(orders)) {
+            Long id = reservation.getId();
+            if (stockReservationRepository.transition(id, ReservationStatus.HELD, ReservationStatus.COMMITTED) == 1) {
+                continue;
+            }
+            // paid after the reservation expired, take the stock again if it is still there
+            if (stockReservationRepository.transition(id, ReservationStatus.RELEASED, ReservationStatus.COMMITTED) == 1) {
+                if (productRepository.takeStock(reservation.getProductId(), reservation.getQuantity(), LocalDateTime.now()) == 0) {
+                    System.out.println("oversold product " + reservation.getProductId()
+                            + " for order " + reservation.getOrderId() + ", reservation expired before payment");
+                }
+                if (reservation.isFlashSale()) {
+                    // the expiry took it out of the sold count, it is a sale after all
+                    flashSaleService.adjustSold(reservation.getProductId(), reservation.getQuantity());
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Collection<Order> orders) {
+        for (StockReservation reservation : reservationsOf(orders)) {
+            if (stockReservationRepository.transition(reservation.getId(),
+                    ReservationStatus.HELD, ReservationStatus.RELEASED) == 1
+                    || stockReservationRepository.transition(reservation.getId(),
+                    ReservationStatus.COMMITTED, ReservationStatus.RELEASED) == 1) {
+                returnStock(reservation);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:60000}")
+    public int releaseExpired() {
+        int released = 0;
+        List<StockReservation> expired;
+        do {
+            expired = stockReservationRepository.findByStatusAndExpiresAtBefore(
+                    ReservationStatus.HELD, LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH));
+            for (StockReservation reservation : expired) {
+                // one short transaction per reservation, checkouts keep going meanwhile
+                Boolean done = transactionTemplate.execute(status -> releaseOne(reservation));
+                if (Boolean.TRUE.equals(done)) {
+                    released++;
+                }
+            }
+        } while (expired.size() == SWEEP_BATCH);
+
+        if (released > 0) {
+            System.out.println("released " + released + " expired stock reservations");
+        }
+        return released;
+    }
+
+    @Override
+    @Transactional(rollbackFor = ProductException.class)
+    public Product restock(Long productId, int delta) throws ProductException {
+        if (productRepository.returnStock(productId, delta, LocalDateTime.now()) == 0) {
+            throw new ProductException("product not found or not enough stock to remove " + (-delta));
+        }
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ProductException("product not found"));
+    }
+
+    private boolean releaseOne(StockReservation reservation) {
+        if (stockReservationRepository.transition(reservation.getId(),
+                ReservationStatus.HELD, ReservationStatus.RELEASED) == 0) {
+            return false;
+        }
+        returnStock(reservation);
+        return true;
+    }
+
+    private void returnStock(StockReservation reservation) {
+        productRepository.returnStock(reservation.getProductId(), reservation.getQuantity(), LocalDateTime.now());
+        if (reservation.isFlashSale()) {
+            flashSaleService.adjustSold(reservation.getProductId(), -reservation.getQuantity());
+        }
+    }
+
+    private List<StockReservation> reservationsOf(Collection<Order> orders) {
+        List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return stockReservationRepository.findByOrderIdIn(orderIds);
+    }
+}
@@ -0,0 +1,185 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.dto.RecentProductView;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.model.Category;
+import com.zosh.model.Product;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.CategoryTreeService;
+import com.zosh.service.NewArrivalsService;
+import com.zosh.utils.RecentIdRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Newest in-stock products, globally and per top-level category, kept in
+ * fixed size rings of ids. Deleted and out-of-stock products stay in the
+ * rings but are skipped on read until they roll off, at which point they
+ * are forgotten.
+ */
+@Service
+@RequiredArgsConstructor
+public class NewArrivalsServiceImpl implements NewArrivalsService {
+
+    private static final int RING_CAPACITY = 100;
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final int SEED_SCAN_LIMIT = 5000;
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeService categoryTreeService;
+
+    private volatile Rings rings = new Rings();
+
+    // non-null while a rebuild is running, so live updates reach both copies
+    private volatile Rings building;
+
+    private final Set<Long> hidden = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<Long> newestIds(String category, int limit) {
+        Rings current = rings;
+        RecentIdRing ring = category == null || category.isBlank()
+                ? current.global
+                : current.byCategory.get(category.trim());
+        if (ring == null) {
+            return Collections.emptyList();
+        }
+        return ring.newest(Math.min(limit, RING_CAPACITY), hidden::contains);
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        Rings fresh = new Rings();
+        building = fresh;
+        try {
+            // rows come newest first, the rings want them oldest first
+            List<RecentProductView> rows = new ArrayList<>();
+            for (int page = 0; page * SEED_BATCH_SIZE < SEED_SCAN_LIMIT; page++) {
+                List<RecentProductView> batch =
+                        productRepository.findRecentInStock(PageRequest.of(page, SEED_BATCH_SIZE));
+                rows.addAll(batch);
+                if (batch.size() < SEED_BATCH_SIZE) {
+                    break;
+                }
+            }
+            Collections.reverse(rows);
+
+            for (RecentProductView row : rows) {
+                Category category = row.getCategoryId() == null
+                        ? null
+                        : categoryTreeService.findByCategoryId(row.getCategoryId());
+                fresh.push(row.getId(), topLevelCategoryId(category));
+            }
+
+            rings = fresh;
+            hidden.clear();
+            return rows.size();
+        } finally {
+            building = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int seeded = rebuild();
+        System.out.println("new arrivals seeded with " + seeded + " products");
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        if (event.getType() == ProductChangeType.CREATED) {
+            String topLevel = topLevelCategoryId(product.getCategory());
+            Rings current = rings;
+            List<Long> dropped = current.push(product.getId(), topLevel);
+            Rings pending = building;
+            if (pending != null) {
+                pending.push(product.getId(), topLevel);
+            }
+            if (!product.isIn_stock()) {
+                hidden.add(product.getId());
+            }
+            for (Long id : dropped) {
+                // nothing can show the id again once it is out of every ring
+                if (hidden.contains(id) && !current.contains(id)) {
+                    hidden.remove(id);
+                }
+            }
+            return;
+        }
+
+        if (event.getType() == ProductChangeType.DELETED || !product.isIn_stock()) {
+            // only remember ids that are actually in a ring, so the set stays bounded
+            if (rings.global.contains(product.getId())
+                    || rings.inCategory(product.getId(), topLevelCategoryId(product.getCategory()))) {
+                hidden.add(product.getId());
+            }
+        } else {
+            hidden.remove(product.getId());
+        }
+    }
+
+    private static String topLevelCategoryId(Category category) {
+        if (category == null) {
+            return null;
+        }
+        while (category.getParentCategory() != null) {
+            category = category.getParentCategory();
+        }
+        return category.getCategoryId();
+    }
+
+    private static class Rings {
+
+        final RecentIdRing global = new RecentIdRing(RING_CAPACITY);
+        final Map<String, RecentIdRing> byCategory = new ConcurrentHashMap<>();
+
+        List<Long> push(long productId, String topLevelCategoryId) {
+            List<Long> dropped = new ArrayList<>(2);
+            long displaced = global.push(productId);
+            if (displaced != 0) {
+                dropped.add(displaced);
+            }
+            if (topLevelCategoryId != null) {
+                displaced = byCategory.computeIfAbsent(topLevelCategoryId, k -> new RecentIdRing(RING_CAPACITY))
+                        .push(productId);
+                if (displaced != 0) {
+                    dropped.add(displaced);
+                }
+            }
+            return dropped;
+        }
+
+        boolean contains(long productId) {
+            if (global.contains(productId)) {
+                return true;
+            }
+            for (RecentIdRing ring : byCategory.values()) {
+                if (ring.contains(productId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean inCategory(long productId, String topLevelCategoryId) {
+            RecentIdRing ring = topLevelCategoryId == null ? null : byCategory.get(topLevelCategoryId);
+            return ring != null && ring.contains(productId);
+        }
+    }
+}
@@ -2,37 +2,58 @@ package com.zosh.service.impl;
 
 import com.zosh.domain.OrderStatus;
 import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderLineDto;
+import com.zosh.dto.OrderSummaryDto;
+import com.zosh.dto.ProductCardDto;
 import com.zosh.exception.OrderException;
+import com.zosh.mapper.OrderMapper;
 import com.zosh.model.*;
 import com.zosh.repository.AddressRepository;
 import com.zosh.repository.OrderItemRepository;
 import com.zosh.repository.OrderRepository;
+import com.zosh.repository.ProductRepository;
 import com.zosh.repository.UserRepository;
+import com.zosh.response.CursorPage;
 
 import com.zosh.service.CartService;
+import com.zosh.service.InventoryService;
 import com.zosh.service.OrderItemService;
 import com.zosh.service.OrderService;
+import com.zosh.service.SellerOrderCountService;
+import com.zosh.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImplementation implements OrderService {
+
+	private static final String ORDER_DATE_SORT = "order_date";
+	private static final int DEFAULT_PAGE_SIZE = 10;
+	private static final int MAX_PAGE_SIZE = 50;
 	
 	private final OrderRepository orderRepository;
+	private final OrderItemRepository orderItemRepository;
+	private final ProductRepository productRepository;
 	private final CartService cartService;
 	private final AddressRepository addressRepository;
 	private final UserRepository userRepository;
 	private final OrderItemService orderItemService;
-	private final OrderItemRepository orderItemRepository;
+	private final InventoryService inventoryService;
+	private final SellerOrderCountService sellerOrderCountService;
 	
 
 
 	@Override
-	public Set<Order> createOrder(User user, Address shippAddress, Cart cart) {
+	@Transactional(rollbackFor = OrderException.class)
+	public Set<Order> createOrder(User user, Address shippAddress, Cart cart) throws OrderException {
 		
 //		shippAddress.setUser(user);
 		if(!user.getAddresses().contains(shippAddress)){
@@ -47,6 +68,9 @@ public class OrderServiceImplementation implements OrderService {
 		Map<Long, List<CartItem>> itemsBySeller = cart.getCartItems().stream()
 				.collect(Collectors.groupingBy(item -> item.getProduct().getSeller().getId()));
 
+		// counter rows are created before any order row is written
+		sellerOrderCountService.prepare(itemsBySeller.keySet());
+
 		Set<Order> orders=new HashSet<>();
 
 		for(Map.Entry<Long, List<CartItem>> entry:itemsBySeller.entrySet()){
@@ -67,16 +91,10 @@ public class OrderServiceImplementation implements OrderService {
 			createdOrder.setOrderStatus(OrderStatus.PENDING);
 			createdOrder.getPaymentDetails().setStatus(PaymentStatus.PENDING);
 
-			Order savedOrder=orderRepository.save(createdOrder);
-			orders.add(savedOrder);
-
-
-			List<OrderItem> orderItems=new ArrayList<>();
-
 			for(CartItem item: cartItems) {
 				OrderItem orderItem=new OrderItem();
 
-				orderItem.setOrder(savedOrder);
+				orderItem.setOrder(createdOrder);
 				orderItem.setMrpPrice(item.getMrpPrice());
 				orderItem.setProduct(item.getProduct());
 				orderItem.setQuantity(item.getQuantity());
@@ -84,14 +102,18 @@ public class OrderServiceImplementation implements OrderService {
 				orderItem.setUserId(item.getUserId());
 				orderItem.setSellingPrice(item.getSellingPrice());
 
-				savedOrder.getOrderItems().add(orderItem);
-
-				OrderItem createdOrderItem=orderItemRepository.save(orderItem);
-
-				orderItems.add(createdOrderItem);
+				createdOrder.getOrderItems().add(orderItem);
 			}
 
+			// items are persisted by the cascade, ids come from the pooled sequences
+			// so hibernate can send all orders and items as batched inserts at flush
+			Order savedOrder=orderRepository.save(createdOrder);
+			orders.add(savedOrder);
+			sellerOrderCountService.adjust(sellerId, null, OrderStatus.PENDING);
 		}
+
+		// stock for every seller's order or none of them, otherwise nothing above is committed
+		inventoryService.reserve(orders);
 		
 		return orders;
 		
@@ -108,9 +130,91 @@ public class OrderServiceImplementation implements OrderService {
 	}
 
 	@Override
-	public List<Order> usersOrderHistory(Long userId) {
+	@Transactional(readOnly = true)
+	public CursorPage<OrderSummaryDto> usersOrderHistory(Long userId, String cursor, Integer size)
+			throws OrderException {
+		int pageSize = pageSize(size);
+		// one extra row tells us whether there is a next page
+		PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+		List<OrderSummaryDto> rows;
+		if (cursor == null || cursor.isEmpty()) {
+			rows = orderRepository.findHistory(userId, limit);
+		} else {
+			KeysetCursor after = decodeOrderCursor(cursor);
+			rows = orderRepository.findHistoryAfter(userId,
+					LocalDateTime.parse(after.value()), after.id(), limit);
+		}
+		return toPage(rows, pageSize);
+	}
 
-		return orderRepository.findByUserId(userId);
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<OrderSummaryDto> getSellerInbox(Long sellerId,
+													  List<OrderStatus> statuses,
+													  PaymentStatus paymentStatus,
+													  LocalDateTime from,
+													  LocalDateTime to,
+													  String cursor,
+													  Integer size) throws OrderException {
+		int pageSize = pageSize(size);
+		LocalDateTime afterDate = null;
+		Long afterId = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			KeysetCursor after = decodeOrderCursor(cursor);
+			afterDate = LocalDateTime.parse(after.value());
+			afterId = after.id();
+		}
+
+		List<OrderSummaryDto> rows = orderRepository.findInbox(sellerId, statuses, paymentStatus,
+				from, to, afterDate, afterId, pageSize + 1);
+		return toPage(rows, pageSize);
+	}
+
+	@Override
+	public Map<OrderStatus, Long> getSellerOrderCounts(Long sellerId) {
+		return sellerOrderCountService.getCounts(sellerId);
+	}
+
+	private static int pageSize(Integer size) {
+		return size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+	}
+
+	private CursorPage<OrderSummaryDto> toPage(List<OrderSummaryDto> rows, int pageSize) {
+		boolean hasNext = rows.size() > pageSize;
+		List<OrderSummaryDto> content = new ArrayList<>(hasNext ? rows.subList(0, pageSize) : rows);
+		if (content.isEmpty()) {
+			return new CursorPage<>(content, null, false, null);
+		}
+
+		// lines and product cards for the whole page, not per order
+		List<OrderLineDto> lines = orderItemRepository.findLinesByOrderIds(
+				content.stream().map(OrderSummaryDto::getId).toList());
+		Set<Long> productIds = lines.stream().map(OrderLineDto::getProductId)
+				.filter(Objects::nonNull).collect(Collectors.toSet());
+		Map<Long, ProductCardDto> cards = productIds.isEmpty() ? Map.of()
+				: productRepository.findCardsByIds(productIds).stream()
+						.collect(Collectors.toMap(ProductCardDto::getId, card -> card));
+
+		String nextCursor = null;
+		if (hasNext) {
+			OrderSummaryDto last = content.get(content.size() - 1);
+			nextCursor = new KeysetCursor(ORDER_DATE_SORT, last.getOrderDate().toString(), last.getId()).encode();
+		}
+		return new CursorPage<>(OrderMapper.toOrderSummaries(content, lines, cards), nextCursor, hasNext, null);
+	}
+
+	private KeysetCursor decodeOrderCursor(String cursor) throws OrderException {
+		try {
+			KeysetCursor after = KeysetCursor.decode(cursor);
+			if (!ORDER_DATE_SORT.equals(after.sort()) || after.value() == null) {
+				throw new OrderException("invalid cursor");
+			}
+			LocalDateTime.parse(after.value());
+			return after;
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new OrderException("invalid cursor");
+		}
 	}
 
 	@Override
@@ -120,29 +224,42 @@ public class OrderServiceImplementation implements OrderService {
 	}
 
 	@Override
+	@Transactional(rollbackFor = OrderException.class)
 	public Order updateOrderStatus(Long orderId, OrderStatus orderStatus)
 			throws OrderException {
 		Order order=findOrderById(orderId);
+		sellerOrderCountService.adjust(order.getSellerId(), order.getOrderStatus(), orderStatus);
+		if (orderStatus == OrderStatus.CANCELLED && order.getOrderStatus() != OrderStatus.CANCELLED) {
+			// a seller or admin cancel gives the stock back like the customer's does
+			inventoryService.release(List.of(order));
+		}
 		order.setOrderStatus(orderStatus);
 		return orderRepository.save(order);
 	}
 
 
 	@Override
+	@Transactional(rollbackFor = OrderException.class)
 	public void deleteOrder(Long orderId) throws OrderException {
 		Order order = findOrderById(orderId);
+		sellerOrderCountService.adjust(order.getSellerId(), order.getOrderStatus(), null);
+		// held or committed stock goes back before the order disappears
+		inventoryService.release(List.of(order));
 		
 		orderRepository.deleteById(orderId);
 		
 	}
 
 	@Override
+	@Transactional(rollbackFor = OrderException.class)
 	public Order cancelOrder(Long orderId, User user) throws OrderException {
 		Order order=this.findOrderById(orderId);
 		if(user.getId()!=order.getUser().getId()){
 			throw new OrderException("you can't perform this action "+orderId);
 		}
+		sellerOrderCountService.adjust(order.getSellerId(), order.getOrderStatus(), OrderStatus.CANCELLED);
 		order.setOrderStatus(OrderStatus.CANCELLED);
+		inventoryService.release(List.of(order));
 
 		return orderRepository.save(order);
 	}
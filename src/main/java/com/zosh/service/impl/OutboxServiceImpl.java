@@ -0,0 +1,281 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.OutboxEventType;
+import com.zosh.domain.OutboxStatus;
+import com.zosh.model.Order;
+import com.zosh.model.OutboxEvent;
+import com.zosh.model.PaymentOrder;
+import com.zosh.model.Seller;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.OutboxEventRepository;
+import com.zosh.repository.PaymentOrderRepository;
+import com.zosh.repository.SellerReportRepository;
+import com.zosh.repository.TransactionRepository;
+import com.zosh.service.CartService;
+import com.zosh.service.EmailService;
+import com.zosh.service.OutboxService;
+import com.zosh.service.SellerReportService;
+import com.zosh.service.SellerService;
+import com.zosh.service.TransactionService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Transactional outbox for what happens after a payment: the seller's
+ * transaction and report, the confirmation email and clearing the cart.
+ * The payment transaction only inserts event rows; a dispatcher drains
+ * them in batches, on a schedule and right after each commit.
+ *
+ * Each event is marked DONE in the same transaction as its handler, so a
+ * database side effect happens exactly once even with several instances
+ * polling. The email is the exception: its event is leased in a short
+ * transaction, the mail goes out with no transaction or connection held,
+ * and only then is the event marked DONE. A dispatcher that dies in
+ * between lets the lease run out and the mail is sent again
+ * (at-least-once). Failed events are retried with exponential backoff and
+ * parked as FAILED after max-attempts.
+ *
+ * Batches always run on the outbox executor's own thread; the scheduled
+ * poll only wakes it, so slow SMTP never holds up the other jobs.
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderRepository orderRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TransactionRepository transactionRepository;
+    private final SellerReportRepository sellerReportRepository;
+    private final TransactionService transactionService;
+    private final SellerService sellerService;
+    private final SellerReportService sellerReportService;
+    private final EmailService emailService;
+    private final CartService cartService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService outboxExecutor;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.base-backoff-ms:1000}")
+    private long baseBackoffMs;
+
+    @Value("${outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${outbox.email-lease-ms:60000}")
+    private long emailLeaseMs;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             OrderRepository orderRepository,
+                             PaymentOrderRepository paymentOrderRepository,
+                             TransactionRepository transactionRepository,
+                             SellerReportRepository sellerReportRepository,
+                             TransactionService transactionService,
+                             SellerService sellerService,
+                             SellerReportService sellerReportService,
+                             EmailService emailService,
+                             CartService cartService,
+                             TransactionTemplate transactionTemplate,
+                             @Qualifier("outboxExecutor") ExecutorService outboxExecutor) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderRepository = orderRepository;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.transactionRepository = transactionRepository;
+        this.sellerReportRepository = sellerReportRepository;
+        this.transactionService = transactionService;
+        this.sellerService = sellerService;
+        this.sellerReportService = sellerReportService;
+        this.emailService = emailService;
+        this.cartService = cartService;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxExecutor = outboxExecutor;
+    }
+
+    @Override
+    public void enqueue(OutboxEventType type, Long aggregateId) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setDedupeKey(type + ":" + aggregateId);
+        event.setAvailableAt(now);
+        event.setCreatedAt(now);
+        outboxEventRepository.save(event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxExecutor.execute(() -> dispatch());
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        outboxExecutor.execute(() -> dispatch());
+    }
+
+    @Override
+    public synchronized int dispatch() {
+        int delivered = 0;
+        while (true) {
+            List<OutboxEvent> batch = outboxEventRepository.findByStatusAndAvailableAtLessThanEqualOrderByIdAsc(
+                    OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (OutboxEvent event : batch) {
+                if (deliver(event)) {
+                    delivered++;
+                }
+            }
+            // failed events move into the future, so a short batch means we are caught up
+            if (batch.size() < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public int purgeProcessed() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return purged == null ? 0 : purged;
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        if (event.getEventType() == OutboxEventType.PAYMENT_CONFIRMATION_EMAIL) {
+            return deliverEmail(event);
+        }
+        try {
+            Boolean done = transactionTemplate.execute(status -> {
+                if (outboxEventRepository.markDone(event.getId(), LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                try {
+                    handle(event);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+                return true;
+            });
+            return Boolean.TRUE.equals(done);
+        } catch (RuntimeException e) {
+            retryLater(event, e);
+            return false;
+        }
+    }
+
+    private boolean deliverEmail(OutboxEvent event) {
+        try {
+            Mail mail = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                if (outboxEventRepository.lease(event.getId(), now, now.plus(emailLeaseMs, ChronoUnit.MILLIS)) == 0) {
+                    return null;
+                }
+                return confirmationEmail(event.getAggregateId());
+            });
+            if (mail == null) {
+                return false;
+            }
+
+            if (mail.to() != null) {
+                emailService.sendVerificationOtpEmail(mail.to(), "", mail.subject(), mail.text());
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markDone(event.getId(), LocalDateTime.now()));
+            return true;
+        } catch (RuntimeException e) {
+            retryLater(event, e);
+            return false;
+        } catch (Exception e) {
+            retryLater(event, new IllegalStateException(e.getMessage(), e));
+            return false;
+        }
+    }
+
+    private void handle(OutboxEvent event) throws Exception {
+        switch (event.getEventType()) {
+            case ORDER_PAID -> orderPaid(event.getAggregateId());
+            case CART_CLEAR -> clearCart(event.getAggregateId());
+            // PAYMENT_CONFIRMATION_EMAIL never gets here, see deliverEmail
+        }
+    }
+
+    private void orderPaid(Long orderId) throws Exception {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            return;
+        }
+        // Transaction has a unique order_id, a replay must not try to insert it again
+        if (!transactionRepository.existsByOrderId(orderId)) {
+            transactionService.createTransaction(order);
+        }
+        Seller seller = sellerService.getSellerById(order.getSellerId());
+        sellerReportService.getSellerReport(seller);
+        sellerReportRepository.addSale(seller.getId(), order.getTotalSellingPrice(), order.getOrderItems().size());
+    }
+
+    // everything the mail needs, read while the transaction is still open
+    private Mail confirmationEmail(Long paymentOrderId) {
+        PaymentOrder paymentOrder = paymentOrderRepository.findById(paymentOrderId).orElse(null);
+        if (paymentOrder == null) {
+            // nothing to send, the event is still marked done
+            return new Mail(null, null, null);
+        }
+        String subject = "Payment Successful - Order Confirmed";
+        String message = String.format(
+                "Dear %s,\n\nYour payment has been successfully processed!\n\nOrder Details:\nAmount Paid: ₹%d\nNumber of Orders: %d\n\nThank you for your purchase!\n\nBest regards,\nE-commerce Team\n\n",
+                paymentOrder.getUser().getFullName(),
+                paymentOrder.getAmount(),
+                paymentOrder.getOrders().size()
+        );
+        return new Mail(paymentOrder.getUser().getEmail(), subject, message);
+    }
+
+    private void clearCart(Long paymentOrderId) {
+        PaymentOrder paymentOrder = paymentOrderRepository.findById(paymentOrderId).orElse(null);
+        if (paymentOrder != null) {
+            cartService.clearCart(paymentOrder.getUser());
+        }
+    }
+
+    private record Mail(String to, String subject, String text) {
+    }
+
+    private void retryLater(OutboxEvent event, RuntimeException e) {
+        int attempts = event.getAttempts() + 1;
+        OutboxStatus next = attempts >= maxAttempts ? OutboxStatus.FAILED : OutboxStatus.PENDING;
+        long backoff = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts - 1, 20));
+        String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        String lastError = error;
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.retryLater(event.getId(),
+                next, LocalDateTime.now().plus(backoff, ChronoUnit.MILLIS), lastError));
+        System.out.println("outbox event " + event.getId() + " (" + event.getEventType() + ") failed, attempt "
+                + attempts + (next == OutboxStatus.FAILED ? ", giving up: " : ": ") + error);
+    }
+}
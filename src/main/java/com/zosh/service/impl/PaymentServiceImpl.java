@@ -8,8 +8,11 @@ import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
+import com.zosh.domain.OutboxEventType;
 import com.zosh.domain.PaymentOrderStatus;
 import com.zosh.domain.PaymentStatus;
+import com.zosh.exception.OrderException;
+import com.zosh.model.Address;
 import com.zosh.model.Cart;
 import com.zosh.model.Order;
 import com.zosh.model.PaymentOrder;
@@ -17,13 +20,16 @@ import com.zosh.model.User;
 import com.zosh.repository.CartRepository;
 import com.zosh.repository.OrderRepository;
 import com.zosh.repository.PaymentOrderRepository;
-import com.zosh.service.CartService;
-import com.zosh.service.EmailService;
+import com.zosh.service.InventoryService;
+import com.zosh.service.OrderService;
+import com.zosh.service.OutboxService;
 import com.zosh.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 import java.util.Set;
@@ -44,8 +50,10 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentOrderRepository paymentOrderRepository;
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
-    private final CartService cartService; // ✅ Inject CartService
-    private final EmailService emailService; // ✅ Inject EmailService
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final OrderService orderService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public PaymentOrder createOrder(User user, Set<Order> orders) {
@@ -60,6 +68,14 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentOrderRepository.save(order);
     }
 
+    @Override
+    @Transactional(rollbackFor = OrderException.class)
+    public PaymentOrder createOrder(User user, Address shippingAddress, Cart cart) throws OrderException {
+        // orders that commit without their payment order can't be paid for or found again by a retry
+        Set<Order> orders = orderService.createOrder(user, shippingAddress, cart);
+        return createOrder(user, orders);
+    }
+
     @Override
     public PaymentOrder getPaymentOrderById(Long id) throws Exception {
         Optional<PaymentOrder> optionalPaymentOrder = paymentOrderRepository.findById(id);
@@ -91,38 +107,31 @@ public class PaymentServiceImpl implements PaymentService {
             String status = payment.get("status");
 
             if ("captured".equals(status)) {
-                Set<Order> orders = paymentOrder.getOrders();
-                for (Order order : orders) {
-                    order.setPaymentStatus(PaymentStatus.COMPLETED);
-                    orderRepository.save(order);
-                }
-
-                paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
-                paymentOrderRepository.save(paymentOrder);
-
-                // Send payment success email using existing sendVerificationOtpEmail method
-                try {
-                    String userEmail = paymentOrder.getUser().getEmail();
-                    String subject = "Payment Successful - Order Confirmed";
-                    String message = String.format(
-                            "Dear %s,\n\nYour payment has been successfully processed!\n\nOrder Details:\nAmount Paid: ₹%d\nNumber of Orders: %d\n\nThank you for your purchase!\n\nBest regards,\nE-commerce Team\n\n",
-                            paymentOrder.getUser().getFullName(),
-                            paymentOrder.getAmount(),
-                            orders.size()
-                    );
-                    emailService.sendVerificationOtpEmail(userEmail, "", subject, message);
-                } catch (Exception e) {
-                    // Log error but don't fail the payment process
-                    System.err.println("Failed to send payment success email: " + e.getMessage());
-                }
-
-                cartService.clearCart(paymentOrder.getUser());
-
+                // payment state and the outbox rows for everything that follows commit together;
+                // the seller transactions, reports, email and cart clearing run in the dispatcher
+                transactionTemplate.executeWithoutResult(tx -> {
+                    Set<Order> orders = paymentOrder.getOrders();
+                    for (Order order : orders) {
+                        order.setPaymentStatus(PaymentStatus.COMPLETED);
+                        orderRepository.save(order);
+                        outboxService.enqueue(OutboxEventType.ORDER_PAID, order.getId());
+                    }
+
+                    paymentOrder.setStatus(PaymentOrderStatus.SUCCESS);
+                    paymentOrderRepository.save(paymentOrder);
+                    inventoryService.commit(orders);
+
+                    outboxService.enqueue(OutboxEventType.PAYMENT_CONFIRMATION_EMAIL, paymentOrder.getId());
+                    outboxService.enqueue(OutboxEventType.CART_CLEAR, paymentOrder.getId());
+                });
                 return true;
             }
 
-            paymentOrder.setStatus(PaymentOrderStatus.FAILED);
-            paymentOrderRepository.save(paymentOrder);
+            transactionTemplate.executeWithoutResult(tx -> {
+                paymentOrder.setStatus(PaymentOrderStatus.FAILED);
+                paymentOrderRepository.save(paymentOrder);
+                inventoryService.release(paymentOrder.getOrders());
+            });
             return false;
         }
 
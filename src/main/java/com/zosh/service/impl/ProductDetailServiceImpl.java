@@ -0,0 +1,208 @@
+package com.zosh.service.impl;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.ProductDto;
+import com.zosh.dto.RatingSummary;
+import com.zosh.dto.ReviewDto;
+import com.zosh.dto.SellerSummaryDto;
+import com.zosh.exception.ProductException;
+import com.zosh.mapper.ProductMapper;
+import com.zosh.mapper.ReviewMapper;
+import com.zosh.model.Product;
+import com.zosh.model.Seller;
+import com.zosh.model.User;
+import com.zosh.repository.ProductRepository;
+import com.zosh.repository.ReviewRepository;
+import com.zosh.repository.WishlistRepository;
+import com.zosh.response.ProductDetailResponse;
+import com.zosh.service.ProductDetailService;
+import com.zosh.service.UserService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the whole product page in one call. The product is required;
+ * reviews, similar products and wishlist state are fetched next to it on
+ * a bounded pool, each with its own deadline, and are left out of the
+ * response (listed under "missing") when they fail or run late. Similar
+ * products need the product's category, so their deadline starts when
+ * the product has loaded rather than with the request.
+ */
+@Service
+public class ProductDetailServiceImpl implements ProductDetailService {
+
+    private static final long PRODUCT_DEADLINE_MS = 2000;
+    private static final long REVIEWS_DEADLINE_MS = 400;
+    private static final long SIMILAR_DEADLINE_MS = 400;
+    private static final long WISHLIST_DEADLINE_MS = 250;
+
+    private static final int REVIEW_PAGE_SIZE = 5;
+    private static final int SIMILAR_LIMIT = 8;
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final WishlistRepository wishlistRepository;
+    private final UserService userService;
+    private final ExecutorService executor;
+    private final TransactionTemplate readOnly;
+
+    public ProductDetailServiceImpl(ProductRepository productRepository,
+                                    ReviewRepository reviewRepository,
+                                    WishlistRepository wishlistRepository,
+                                    UserService userService,
+                                    @Qualifier("productDetailExecutor") ExecutorService executor,
+                                    PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.wishlistRepository = wishlistRepository;
+        this.userService = userService;
+        this.executor = executor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Override
+    public ProductDetailResponse getProductDetail(Long productId, String jwt) throws ProductException {
+        long started = System.nanoTime();
+
+        // the worker threads have no open session, so each part maps its
+        // entities to DTOs inside its own read-only transaction
+        CompletableFuture<ProductPart> product = submit(() -> readOnly.execute(status -> loadProduct(productId)));
+        CompletableFuture<List<ReviewDto>> reviews = submit(() -> readOnly.execute(status ->
+                reviewRepository.findByProductIdOrderByCreatedAtDesc(productId, PageRequest.of(0, REVIEW_PAGE_SIZE))
+                        .stream()
+                        .map(ReviewMapper::toReviewDto)
+                        .toList()));
+        CompletableFuture<List<ProductCardDto>> similar = product.thenApplyAsync(
+                part -> readOnly.execute(status -> similarProducts(productId, part.categoryId())), executor);
+        CompletableFuture<Boolean> inWishlist = jwt == null
+                ? CompletableFuture.completedFuture(null)
+                : submit(() -> isInWishlist(jwt, productId));
+
+        ProductDetailResponse res = new ProductDetailResponse();
+
+        ProductPart part;
+        try {
+            part = product.get(remaining(started, PRODUCT_DEADLINE_MS), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ProductException productException) {
+                throw productException;
+            }
+            throw new ProductException("product detail failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            product.cancel(true);
+            throw new ProductException("product detail timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductException("product detail interrupted");
+        }
+        long productLoaded = System.nanoTime();
+        res.setProduct(part.product());
+        res.setSeller(part.seller());
+        res.setRatings(part.ratings());
+
+        res.setReviews(await(reviews, started, REVIEWS_DEADLINE_MS, "reviews", res));
+        res.setSimilarProducts(await(similar, productLoaded, SIMILAR_DEADLINE_MS, "similarProducts", res));
+        res.setInWishlist(await(inWishlist, started, WISHLIST_DEADLINE_MS, "inWishlist", res));
+
+        return res;
+    }
+
+    private ProductPart loadProduct(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new CompletionException(new ProductException("product not found")));
+
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        return new ProductPart(ProductMapper.toProductDto(product),
+                toSellerSummary(product.getSeller()),
+                ProductMapper.toRatingSummary(product),
+                categoryId);
+    }
+
+    private List<ProductCardDto> similarProducts(Long productId, Long categoryId) {
+        if (categoryId == null) {
+            return List.of();
+        }
+        Specification<Product> spec = (root, query, cb) -> cb.and(
+                cb.equal(root.get("category").get("id"), categoryId),
+                cb.notEqual(root.get("id"), productId),
+                cb.isTrue(root.get("in_stock")));
+        return productRepository.findCards(spec,
+                Sort.by("averageRating").descending().and(Sort.by("id").descending()),
+                SIMILAR_LIMIT);
+    }
+
+    private Boolean isInWishlist(String jwt, Long productId) {
+        try {
+            User user = userService.findUserProfileByJwt(jwt);
+            return wishlistRepository.countProductInWishlist(user.getId(), productId) > 0;
+        } catch (Exception e) {
+            // an invalid token only costs the wishlist flag, not the page
+            return null;
+        }
+    }
+
+    private SellerSummaryDto toSellerSummary(Seller seller) {
+        if (seller == null) {
+            return null;
+        }
+        SellerSummaryDto summary = new SellerSummaryDto();
+        summary.setId(seller.getId());
+        summary.setSellerName(seller.getSellerName());
+        if (seller.getBusinessDetails() != null) {
+            summary.setBusinessName(seller.getBusinessDetails().getBusinessName());
+            summary.setLogo(seller.getBusinessDetails().getLogo());
+        }
+        return summary;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, long started, long deadlineMs,
+                        String part, ProductDetailResponse res) {
+        try {
+            return future.get(remaining(started, deadlineMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            System.out.println("product detail part " + part + " missed its " + deadlineMs + "ms deadline");
+        } catch (ExecutionException e) {
+            System.out.println("product detail part " + part + " failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        res.getMissing().add(part);
+        return null;
+    }
+
+    private static long remaining(long started, long deadlineMs) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return Math.max(0, deadlineMs - elapsedMs);
+    }
+
+    private record ProductPart(ProductDto product,
+                               SellerSummaryDto seller,
+                               RatingSummary ratings,
+                               Long categoryId) {
+    }
+}
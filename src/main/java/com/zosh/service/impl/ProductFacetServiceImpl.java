@@ -0,0 +1,406 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.model.Product;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.CategoryTreeService;
+import com.zosh.service.ProductFacetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts over a columnar copy of the catalog. Every product gets a
+ * dense ordinal; color, size, category and stock are kept as bitmaps over
+ * those ordinals and price/discount/rating as plain numeric columns. A count is a few
+ * BitSet ANDs plus one scan of the matching ordinals, no SQL involved.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductFacetServiceImpl implements ProductFacetService {
+
+    private static final int[] PRICE_BUCKETS = {0, 500, 1000, 2000, 5000};
+    private static final int[] DISCOUNT_STEPS = {10, 20, 30, 40, 50, 60, 70, 80};
+    private static final int[] RATING_STEPS = {4, 3, 2, 1};
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final CategoryTreeService categoryTreeService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columns columns = new Columns();
+
+    // non-null while a rebuild is running, so live updates reach both copies
+    private Columns building;
+
+    @Override
+    public Map<String, Map<String, Integer>> countFacets(String category,
+                                                         String color,
+                                                         String size,
+                                                         Integer minPrice,
+                                                         Integer maxPrice,
+                                                         Integer minDiscount,
+                                                         Double minRating,
+                                                         String stock) {
+        Set<Long> categoryIds = category != null ? categoryTreeService.descendantIds(category) : null;
+        Boolean inStock = ProductServiceImpl.parseStock(stock);
+
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+
+            BitSet categoryMask = c.live;
+            if (categoryIds != null) {
+                categoryMask = new BitSet();
+                for (Long id : categoryIds) {
+                    BitSet bits = c.byCategory.get(id);
+                    if (bits != null) {
+                        categoryMask.or(bits);
+                    }
+                }
+            }
+            BitSet colorMask = isBlank(color) ? c.live : c.byColor.getOrDefault(color.trim(), new BitSet());
+            BitSet sizeMask = isBlank(size) ? c.live : c.bySize.getOrDefault(size.trim(), new BitSet());
+            BitSet stockMask = inStock == null ? c.live : (inStock ? c.inStock : outOfStock(c));
+            BitSet priceMask = c.live;
+            if (minPrice != null || maxPrice != null) {
+                priceMask = scan(c, c.live, ordinal ->
+                        (minPrice == null || c.price[ordinal] >= minPrice)
+                                && (maxPrice == null || c.price[ordinal] <= maxPrice));
+            }
+            BitSet discountMask = minDiscount == null ? c.live
+                    : scan(c, c.live, ordinal -> c.discount[ordinal] >= minDiscount);
+            BitSet ratingMask = minRating == null ? c.live
+                    : scan(c, c.live, ordinal -> c.rating[ordinal] >= minRating);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+
+            // each facet is counted against every filter except its own,
+            // so the client can still offer the sibling values
+            facets.put("category", countByCategory(c,
+                    and(c.live, colorMask, sizeMask, priceMask, discountMask, ratingMask, stockMask)));
+            facets.put("color", countValues(c.byColor,
+                    and(c.live, categoryMask, sizeMask, priceMask, discountMask, ratingMask, stockMask)));
+            facets.put("size", countValues(c.bySize,
+                    and(c.live, categoryMask, colorMask, priceMask, discountMask, ratingMask, stockMask)));
+            facets.put("price", countPrices(c,
+                    and(c.live, categoryMask, colorMask, sizeMask, discountMask, ratingMask, stockMask)));
+            facets.put("discount", countDiscounts(c,
+                    and(c.live, categoryMask, colorMask, sizeMask, priceMask, ratingMask, stockMask)));
+            facets.put("rating", countRatings(c,
+                    and(c.live, categoryMask, colorMask, sizeMask, priceMask, discountMask, stockMask)));
+
+            BitSet stockBase = and(c.live, categoryMask, colorMask, sizeMask, priceMask, discountMask, ratingMask);
+            Map<String, Integer> stockCounts = new LinkedHashMap<>();
+            int available = and(stockBase, c.inStock).cardinality();
+            stockCounts.put("in_stock", available);
+            stockCounts.put("out_of_stock", stockBase.cardinality() - available);
+            facets.put("stock", stockCounts);
+
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        Columns fresh = new Columns();
+        lock.writeLock().lock();
+        try {
+            building = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Page<Product> page;
+        do {
+            page = productRepository.findAll(pageable);
+            lock.writeLock().lock();
+            try {
+                for (Product product : page.getContent()) {
+                    fresh.put(product);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+
+        lock.writeLock().lock();
+        try {
+            columns = fresh;
+            building = null;
+            return fresh.live.cardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int indexed = rebuild();
+        System.out.println("product facet index built with " + indexed + " products");
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            apply(columns, product, event.getType());
+            if (building != null) {
+                apply(building, product, event.getType());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Columns target, Product product, ProductChangeType type) {
+        if (type == ProductChangeType.DELETED) {
+            target.remove(product.getId());
+        } else {
+            target.put(product);
+        }
+    }
+
+    private Map<String, Integer> countValues(Map<String, BitSet> values, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, BitSet> entry : values.entrySet()) {
+            int count = and(base, entry.getValue()).cardinality();
+            if (count > 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> countByCategory(Columns c, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<Long, BitSet> entry : c.byCategory.entrySet()) {
+            int count = and(base, entry.getValue()).cardinality();
+            String categoryId = c.categoryIds.get(entry.getKey());
+            if (count > 0 && categoryId != null) {
+                counts.put(categoryId, count);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> countPrices(Columns c, BitSet base) {
+        int[] counts = new int[PRICE_BUCKETS.length];
+        for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+            counts[priceBucket(c.price[ordinal])]++;
+        }
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            String label = i + 1 < PRICE_BUCKETS.length
+                    ? PRICE_BUCKETS[i] + "-" + (PRICE_BUCKETS[i + 1] - 1)
+                    : PRICE_BUCKETS[i] + "+";
+            result.put(label, counts[i]);
+        }
+        return result;
+    }
+
+    private Map<String, Integer> countDiscounts(Columns c, BitSet base) {
+        int[] counts = new int[DISCOUNT_STEPS.length];
+        for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+            int discount = c.discount[ordinal];
+            for (int i = 0; i < DISCOUNT_STEPS.length && discount >= DISCOUNT_STEPS[i]; i++) {
+                counts[i]++;
+            }
+        }
+
+        // cumulative, matching the minDiscount filter
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < DISCOUNT_STEPS.length; i++) {
+            result.put(DISCOUNT_STEPS[i] + "+", counts[i]);
+        }
+        return result;
+    }
+
+    private Map<String, Integer> countRatings(Columns c, BitSet base) {
+        int[] counts = new int[RATING_STEPS.length];
+        for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+            double rating = c.rating[ordinal];
+            for (int i = 0; i < RATING_STEPS.length; i++) {
+                if (rating >= RATING_STEPS[i]) {
+                    counts[i]++;
+                }
+            }
+        }
+
+        // cumulative, matching the minRating filter
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < RATING_STEPS.length; i++) {
+            result.put(RATING_STEPS[i] + "+", counts[i]);
+        }
+        return result;
+    }
+
+    private static int priceBucket(int price) {
+        int bucket = 0;
+        while (bucket + 1 < PRICE_BUCKETS.length && price >= PRICE_BUCKETS[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static BitSet outOfStock(Columns c) {
+        BitSet bits = (BitSet) c.live.clone();
+        bits.andNot(c.inStock);
+        return bits;
+    }
+
+    private static BitSet scan(Columns c, BitSet base, OrdinalPredicate predicate) {
+        BitSet bits = new BitSet(c.size);
+        for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+            if (predicate.test(ordinal)) {
+                bits.set(ordinal);
+            }
+        }
+        return bits;
+    }
+
+    private static BitSet and(BitSet first, BitSet... rest) {
+        BitSet result = (BitSet) first.clone();
+        for (BitSet bits : rest) {
+            if (bits != first) {
+                result.and(bits);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private interface OrdinalPredicate {
+        boolean test(int ordinal);
+    }
+
+    private static class Columns {
+
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        final Map<Long, List<String>> sizes = new HashMap<>();
+        final Map<Long, String> colors = new HashMap<>();
+        final Map<Long, Long> categories = new HashMap<>();
+        final Map<Long, String> categoryIds = new HashMap<>();
+
+        final BitSet live = new BitSet();
+        final BitSet inStock = new BitSet();
+        final Map<String, BitSet> byColor = new HashMap<>();
+        final Map<String, BitSet> bySize = new HashMap<>();
+        final Map<Long, BitSet> byCategory = new HashMap<>();
+
+        int[] price = new int[1024];
+        int[] discount = new int[1024];
+        double[] rating = new double[1024];
+        int size;
+
+        void put(Product product) {
+            remove(product.getId());
+
+            int ordinal = ordinals.computeIfAbsent(product.getId(), id -> size++);
+            if (ordinal >= price.length) {
+                price = Arrays.copyOf(price, price.length * 2);
+                discount = Arrays.copyOf(discount, discount.length * 2);
+                rating = Arrays.copyOf(rating, rating.length * 2);
+            }
+
+            live.set(ordinal);
+            price[ordinal] = product.getSellingPrice();
+            discount[ordinal] = product.getDiscountPercent();
+            rating[ordinal] = product.getAverageRating();
+            if (product.isIn_stock()) {
+                inStock.set(ordinal);
+            }
+
+            if (product.getColor() != null && !product.getColor().isBlank()) {
+                String color = product.getColor().trim();
+                colors.put(product.getId(), color);
+                byColor.computeIfAbsent(color, k -> new BitSet()).set(ordinal);
+            }
+
+            List<String> productSizes = new ArrayList<>();
+            if (product.getSizes() != null) {
+                for (String value : product.getSizes().split(",")) {
+                    String trimmed = value.trim();
+                    if (!trimmed.isEmpty()) {
+                        productSizes.add(trimmed);
+                        bySize.computeIfAbsent(trimmed, k -> new BitSet()).set(ordinal);
+                    }
+                }
+            }
+            sizes.put(product.getId(), productSizes);
+
+            if (product.getCategory() != null && product.getCategory().getId() != null) {
+                Long categoryId = product.getCategory().getId();
+                categories.put(product.getId(), categoryId);
+                categoryIds.put(categoryId, product.getCategory().getCategoryId());
+                byCategory.computeIfAbsent(categoryId, k -> new BitSet()).set(ordinal);
+            }
+        }
+
+        // the ordinal stays reserved for the id, a re-put reuses it
+        void remove(Long productId) {
+            Integer ordinal = ordinals.get(productId);
+            if (ordinal == null) {
+                return;
+            }
+
+            live.clear(ordinal);
+            inStock.clear(ordinal);
+
+            String color = colors.remove(productId);
+            if (color != null) {
+                clear(byColor, color, ordinal);
+            }
+            List<String> productSizes = sizes.remove(productId);
+            if (productSizes != null) {
+                for (String value : productSizes) {
+                    clear(bySize, value, ordinal);
+                }
+            }
+            Long categoryId = categories.remove(productId);
+            if (categoryId != null) {
+                clear(byCategory, categoryId, ordinal);
+            }
+        }
+
+        private static <K> void clear(Map<K, BitSet> index, K key, int ordinal) {
+            BitSet bits = index.get(key);
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+}
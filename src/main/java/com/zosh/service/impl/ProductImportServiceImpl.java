@@ -0,0 +1,214 @@
+package com.zosh.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zosh.domain.ImportJobStatus;
+import com.zosh.dto.ProductImportJob;
+import com.zosh.exception.ProductException;
+import com.zosh.model.Seller;
+import com.zosh.request.CreateProductRequest;
+import com.zosh.service.ProductImportService;
+import com.zosh.service.ProductService;
+import com.zosh.utils.CsvLineParser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams NDJSON or CSV product rows from the request body. Rows are
+ * parsed one line at a time and written in chunks, so memory use depends
+ * on the chunk size and not on the file size.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_ERRORS_PER_JOB = 100;
+    private static final int MAX_RETAINED_JOBS = 200;
+    private static final int MAX_CHUNK_SIZE = 5000;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.import.chunk-size:500}")
+    private int defaultChunkSize;
+
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public ProductImportJob importProducts(Seller seller,
+                                           InputStream content,
+                                           String format,
+                                           Integer chunkSize) throws ProductException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ProductException("unsupported import format " + format);
+        }
+        int size = chunkSize != null && chunkSize > 0 ? Math.min(chunkSize, MAX_CHUNK_SIZE) : defaultChunkSize;
+
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString(), seller.getId());
+        register(job);
+
+        List<CreateProductRequest> chunk = new ArrayList<>(size);
+        List<Integer> chunkLines = new ArrayList<>(size);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(content, StandardCharsets.UTF_8))) {
+
+            List<String> header = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = CsvLineParser.parse(line);
+                    continue;
+                }
+
+                try {
+                    CreateProductRequest req = csv ? fromCsv(header, line) : fromJson(line);
+                    validate(req);
+                    chunk.add(req);
+                    chunkLines.add(lineNumber);
+                } catch (Exception e) {
+                    job.addError(lineNumber, e.getMessage(), MAX_ERRORS_PER_JOB);
+                    job.rowsProcessed(0, 1);
+                }
+
+                if (chunk.size() >= size) {
+                    flush(job, seller, chunk, chunkLines);
+                }
+            }
+            flush(job, seller, chunk, chunkLines);
+
+            job.finish(ImportJobStatus.COMPLETED, null);
+        } catch (IOException e) {
+            job.finish(ImportJobStatus.FAILED, "upload interrupted: " + e.getMessage());
+        } catch (RuntimeException e) {
+            job.finish(ImportJobStatus.FAILED, e.getMessage());
+        }
+        return job;
+    }
+
+    @Override
+    public ProductImportJob getJob(String jobId, Long sellerId) throws ProductException {
+        ProductImportJob job = jobs.get(jobId);
+        if (job == null || !job.getSellerId().equals(sellerId)) {
+            throw new ProductException("import job not found with id " + jobId);
+        }
+        return job;
+    }
+
+    @Override
+    public List<ProductImportJob> getJobs(Long sellerId) {
+        return jobs.values().stream()
+                .filter(job -> job.getSellerId().equals(sellerId))
+                .sorted(Comparator.comparing(ProductImportJob::getStartedAt).reversed())
+                .toList();
+    }
+
+    private void flush(ProductImportJob job,
+                       Seller seller,
+                       List<CreateProductRequest> chunk,
+                       List<Integer> chunkLines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            productService.createProducts(chunk, seller);
+            job.rowsProcessed(chunk.size(), 0);
+        } catch (RuntimeException e) {
+            // the chunk was rolled back as a whole
+            for (Integer line : chunkLines) {
+                job.addError(line, "chunk rejected: " + e.getMessage(), MAX_ERRORS_PER_JOB);
+            }
+            job.rowsProcessed(0, chunk.size());
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private CreateProductRequest fromJson(String line) throws IOException {
+        return objectMapper.readValue(line, CreateProductRequest.class);
+    }
+
+    private CreateProductRequest fromCsv(List<String> header, String line) {
+        List<String> values = CsvLineParser.parse(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            row.put(header.get(i).trim(), values.get(i).trim());
+        }
+
+        CreateProductRequest req = new CreateProductRequest();
+        req.setTitle(row.get("title"));
+        req.setDescription(row.get("description"));
+        req.setMrpPrice(parseInt(row.get("mrpPrice"), "mrpPrice"));
+        req.setSellingPrice(parseInt(row.get("sellingPrice"), "sellingPrice"));
+        String quantity = row.get("quantity");
+        req.setQuantity(quantity == null || quantity.isEmpty() ? 0 : parseInt(quantity, "quantity"));
+        req.setBrand(row.get("brand"));
+        req.setColor(row.get("color"));
+        req.setCategory(row.get("category"));
+        req.setCategory2(row.get("category2"));
+        req.setCategory3(row.get("category3"));
+        req.setSizes(row.get("sizes"));
+
+        String images = row.get("images");
+        req.setImages(images == null || images.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(Arrays.asList(images.split("\\|"))));
+        return req;
+    }
+
+    private int parseInt(String value, String column) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private void validate(CreateProductRequest req) {
+        if (req.getTitle() == null || req.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (req.getMrpPrice() <= 0) {
+            throw new IllegalArgumentException("mrpPrice must be greater than zero");
+        }
+        if (req.getQuantity() < 0) {
+            throw new IllegalArgumentException("quantity can't be negative");
+        }
+        if (req.getCategory() == null || req.getCategory2() == null || req.getCategory3() == null) {
+            throw new IllegalArgumentException("category, category2 and category3 are required");
+        }
+    }
+
+    private void register(ProductImportJob job) {
+        if (jobs.size() >= MAX_RETAINED_JOBS) {
+            jobs.values().stream()
+                    .filter(existing -> existing.getStatus() != ImportJobStatus.RUNNING)
+                    .min(Comparator.comparing(ProductImportJob::getStartedAt))
+                    .ifPresent(oldest -> jobs.remove(oldest.getId()));
+        }
+        jobs.put(job.getId(), job);
+    }
+}
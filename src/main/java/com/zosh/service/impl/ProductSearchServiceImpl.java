@@ -0,0 +1,142 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.dto.ProductCardDto;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.mapper.ProductMapper;
+import com.zosh.model.Category;
+import com.zosh.model.Product;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.ProductSearchService;
+import com.zosh.utils.Bm25Index;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    private volatile Bm25Index index = new Bm25Index();
+
+    // non-null while a rebuild is running, so live updates reach both copies
+    private volatile Bm25Index building;
+
+    private volatile boolean ready = false;
+
+    @Override
+    public Page<ProductCardDto> search(String query, int pageNumber) {
+        Pageable pageable = PageRequest.of(pageNumber, PAGE_SIZE);
+
+        if (query == null || query.isBlank()) {
+            return productRepository.findCards(null, pageable);
+        }
+
+        if (!ready) {
+            // index is still loading after a restart, answer from the table
+            List<Product> products = productRepository.searchProduct(query);
+            int from = Math.min((int) pageable.getOffset(), products.size());
+            int to = Math.min(from + PAGE_SIZE, products.size());
+            List<ProductCardDto> cards = products.subList(from, to).stream()
+                    .map(ProductMapper::toProductCardDto)
+                    .toList();
+            return new PageImpl<>(cards, pageable, products.size());
+        }
+
+        Bm25Index.Hits hits = index.search(query, (int) pageable.getOffset(), PAGE_SIZE);
+
+        Map<Long, ProductCardDto> byId = productRepository.findCardsByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(ProductCardDto::getId, Function.identity()));
+
+        List<ProductCardDto> cards = new ArrayList<>();
+        for (Long id : hits.ids()) {
+            ProductCardDto card = byId.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return new PageImpl<>(cards, pageable, hits.total());
+    }
+
+    @Override
+    public synchronized int rebuildIndex() {
+        Bm25Index fresh = new Bm25Index();
+        building = fresh;
+        try {
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            Page<Product> page;
+            do {
+                page = productRepository.findAll(pageable);
+                for (Product product : page.getContent()) {
+                    fresh.add(product.getId(), documentText(product));
+                }
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+
+            index = fresh;
+            ready = true;
+        } finally {
+            building = null;
+        }
+        return fresh.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int indexed = rebuildIndex();
+        System.out.println("product search index built with " + indexed + " products");
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        apply(index, product, event.getType());
+        Bm25Index pending = building;
+        if (pending != null) {
+            apply(pending, product, event.getType());
+        }
+    }
+
+    private void apply(Bm25Index target, Product product, ProductChangeType type) {
+        if (type == ProductChangeType.DELETED) {
+            target.remove(product.getId());
+        } else {
+            target.add(product.getId(), documentText(product));
+        }
+    }
+
+    private String documentText(Product product) {
+        List<String> parts = new ArrayList<>();
+        parts.add(product.getTitle());
+        Category category = product.getCategory();
+        while (category != null) {
+            parts.add(category.getName());
+            parts.add(category.getCategoryId());
+            category = category.getParentCategory();
+        }
+        return parts.stream()
+                .filter(part -> part != null)
+                .collect(Collectors.joining(" "));
+    }
+}
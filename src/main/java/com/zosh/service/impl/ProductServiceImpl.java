@@ -1,36 +1,66 @@
 package com.zosh.service.impl;
 
+import com.zosh.domain.ProductChangeType;
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.VersionStampView;
+import com.zosh.event.ProductChangedEvent;
 import com.zosh.exception.ProductException;
 import com.zosh.model.Category;
 import com.zosh.model.Product;
 import com.zosh.model.Seller;
-import com.zosh.repository.CategoryRepository;
 import com.zosh.repository.ProductRepository;
 import com.zosh.request.CreateProductRequest;
+import com.zosh.response.CursorPage;
+import com.zosh.service.BoughtTogetherService;
+import com.zosh.service.CatalogCacheInvalidator;
+import com.zosh.service.CategoryTreeService;
+import com.zosh.service.NewArrivalsService;
+import com.zosh.service.ProductSearchService;
 import com.zosh.service.ProductService;
-import jakarta.persistence.criteria.Join;
+import com.zosh.utils.KeysetCursor;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int PAGE_SIZE = 10;
 
     private final ProductRepository productRepository;
     
-    private final CategoryRepository categoryRepository;
+    private final CategoryTreeService categoryTreeService;
+
+    private final ProductSearchService productSearchService;
+
+    private final NewArrivalsService newArrivalsService;
+
+    private final BoughtTogetherService boughtTogetherService;
+
+    private final CatalogCacheInvalidator catalogCacheInvalidator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
 
 
     @Override
@@ -39,37 +69,36 @@ public class ProductServiceImpl implements ProductService {
                                  Seller seller
                                  ) throws ProductException {
 
+        Product savedProduct = productRepository.save(newProduct(req, seller));
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangeType.CREATED));
+        return savedProduct;
+    }
 
-        int discountPercentage = calculateDiscountPercentage(req.getMrpPrice(), req.getSellingPrice());
-
-        Category category1=categoryRepository.findByCategoryId(req.getCategory());
-        if(category1==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory());
-            category.setLevel(1);
-            category.setName(req.getCategory().replace("_"," "));
-            category1=categoryRepository.save(category);
+    @Override
+    public List<Product> createProducts(List<CreateProductRequest> requests, Seller seller) {
+        List<Product> products = new ArrayList<>(requests.size());
+        for (CreateProductRequest req : requests) {
+            products.add(newProduct(req, seller));
         }
 
-        Category category2=categoryRepository.findByCategoryId(req.getCategory2());
-        if(category2==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory2());
-            category.setLevel(2);
-            category.setParentCategory(category1);
-            category.setName(req.getCategory2().replace("_"," "));
-            category2=categoryRepository.save(category);
-        }
-        Category category3=categoryRepository.findByCategoryId(req.getCategory3());
-        if(category3==null){
-            Category category=new Category();
-            category.setCategoryId(req.getCategory3());
-            category.setLevel(3);
-            category.setParentCategory(category2);
-            category.setName(req.getCategory3().replace("_"," "));
-            category3=categoryRepository.save(category);
+        // one transaction per chunk, the inserts go out as JDBC batches
+        List<Product> savedProducts = transactionTemplate.execute(status ->
+                productRepository.saveAll(products));
+
+        for (Product savedProduct : savedProducts) {
+            eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangeType.CREATED, true));
         }
-        
+        catalogCacheInvalidator.evict(savedProducts);
+        return savedProducts;
+    }
+
+    private Product newProduct(CreateProductRequest req, Seller seller) {
+        int discountPercentage = calculateDiscountPercentage(req.getMrpPrice(), req.getSellingPrice());
+
+        Category category1 = categoryTreeService.findOrCreate(req.getCategory(), 1, null);
+        Category category2 = categoryTreeService.findOrCreate(req.getCategory2(), 2, category1);
+        Category category3 = categoryTreeService.findOrCreate(req.getCategory3(), 3, category2);
+
         Product product=new Product();
 
         product.setSeller(seller);
@@ -82,9 +111,10 @@ public class ProductServiceImpl implements ProductService {
         product.setImages(req.getImages());
         product.setMrpPrice(req.getMrpPrice());
         product.setSizes(req.getSizes());
+        product.setQuantity(req.getQuantity());
         product.setCreatedAt(LocalDateTime.now());
 
-        return productRepository.save(product);
+        return product;
     }
 
     public static int calculateDiscountPercentage(double mrpPrice, double sellingPrice) {
@@ -96,18 +126,44 @@ public class ProductServiceImpl implements ProductService {
         return (int) discountPercentage;
     }
 
+    public static Boolean parseStock(String stock) {
+        if (stock == null) {
+            return null;
+        }
+        return switch (stock.trim().toLowerCase()) {
+            case "in_stock", "true" -> true;
+            case "out_of_stock", "false" -> false;
+            default -> null;
+        };
+    }
+
     @Override
     public void deleteProduct(Long productId) throws ProductException {
         Product product=findProductById(productId);
         productRepository.delete(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product, ProductChangeType.DELETED));
 
     }
 
     @Override
     public Product updateProduct(Long productId, Product product) throws ProductException {
-        productRepository.findById(productId);
+        Product existing = findProductById(productId);
         product.setId(productId);
-        return productRepository.save(product);
+        product.setVersion(existing.getVersion());
+        // rating aggregates belong to the review flow, never to the edit form
+        product.setNumRatings(existing.getNumRatings());
+        product.setRatingSum(existing.getRatingSum());
+        product.setAverageRating(existing.getAverageRating());
+        product.setOneStarRatings(existing.getOneStarRatings());
+        product.setTwoStarRatings(existing.getTwoStarRatings());
+        product.setThreeStarRatings(existing.getThreeStarRatings());
+        product.setFourStarRatings(existing.getFourStarRatings());
+        product.setFiveStarRatings(existing.getFiveStarRatings());
+        // stock only moves through InventoryService, an edit must not overwrite reservations
+        product.setQuantity(existing.getQuantity());
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangeType.UPDATED));
+        return savedProduct;
 
     }
 
@@ -115,7 +171,9 @@ public class ProductServiceImpl implements ProductService {
     public Product updateProductStock(Long productId) throws ProductException {
         Product product = this.findProductById(productId);
         product.setIn_stock(!product.isIn_stock());
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangeType.STOCK_CHANGED));
+        return savedProduct;
     }
 
     @Override
@@ -125,36 +183,184 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public List<Product> searchProduct(String query) {
-        return productRepository.searchProduct(query);
+    public VersionStampView findProductVersion(Long productId) {
+        return productRepository.findVersionStamp(productId);
+    }
+
+    @Override
+    public Page<ProductCardDto> searchProduct(String query, Integer pageNumber) {
+        return productSearchService.search(query, pageNumber != null ? pageNumber : 0);
     }
 
     @Override
-    public Page<Product> getAllProduct(String category,
+    @Cacheable(value = CatalogCacheInvalidator.PRODUCTS_CACHE,
+            key = "T(com.zosh.service.CatalogCacheKey).of(#category, #color, #size, #minPrice, #maxPrice, #minDiscount, #minRating, #sort, #stock, #pageNumber)")
+    public Page<ProductCardDto> getAllProduct(String category,
                                        String brand,
                                        String color,
                                        String size,
                                        Integer minPrice,
                                        Integer maxPrice,
                                        Integer minDiscount,
+                                       Double minRating,
                                        String sort,
                                        String stock,
                                        Integer pageNumber) {
-        Specification<Product> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Specification<Product> spec = productFilter(category, color, size,
+                minPrice, maxPrice, minDiscount, minRating, stock);
+        Pageable pageable;
+        if (sort != null && !sort.isEmpty()) {
+            pageable = switch (sort) {
+                case "price_low" ->
+                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").ascending());
+                case "price_high" ->
+                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").descending());
+                case "rating" ->
+                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10,
+                                Sort.by("averageRating").descending().and(Sort.by("id").descending()));
+                default -> PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
+            };
+        } else {
+            pageable = PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
+        }
 
 
-            if (category != null) {
-                Join<Product, Category> categoryJoin = root.join("category");
-//                predicates.add(criteriaBuilder.equal(categoryJoin.get("categoryId"), category));
-//                predicates.add(criteriaBuilder.equal(categoryJoin.get("parentCategory").get("categoryId"), category));
-                Predicate categoryPredicate = criteriaBuilder.or(
-                        criteriaBuilder.equal(categoryJoin.get("categoryId"), category),  // Match categoryId
-                        criteriaBuilder.equal(categoryJoin.get("parentCategory").get("categoryId"), category)  // Match parentCategory.categoryId
-                );
+        return productRepository.findCards(spec, pageable);
+    }
+
+    @Override
+    public CursorPage<ProductCardDto> getAllProductByCursor(String category,
+                                                     String brand,
+                                                     String color,
+                                                     String size,
+                                                     Integer minPrice,
+                                                     Integer maxPrice,
+                                                     Integer minDiscount,
+                                                     Double minRating,
+                                                     String sort,
+                                                     String stock,
+                                                     String cursor,
+                                                     boolean includeTotal) throws ProductException {
+        String keysetSort = "price_low".equals(sort) || "price_high".equals(sort) || "rating".equals(sort)
+                ? sort : "newest";
+
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = KeysetCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ProductException("invalid cursor");
+            }
+            if (!keysetSort.equals(after.sort())) {
+                throw new ProductException("cursor was issued for a different sort");
+            }
+        }
+
+        Specification<Product> filter = productFilter(category, color, size,
+                minPrice, maxPrice, minDiscount, minRating, stock);
+        Specification<Product> spec = after == null ? filter : filter.and(keysetPredicate(after));
+
+        Sort order = switch (keysetSort) {
+            case "price_low" -> Sort.by("sellingPrice").ascending().and(Sort.by("id").ascending());
+            case "price_high" -> Sort.by("sellingPrice").descending().and(Sort.by("id").descending());
+            case "rating" -> Sort.by("averageRating").descending().and(Sort.by("id").descending());
+            default -> Sort.by("createdAt").descending().and(Sort.by("id").descending());
+        };
 
+        // one extra row tells us whether there is a next page without a COUNT(*)
+        List<ProductCardDto> rows = productRepository.findCards(spec, order, PAGE_SIZE + 1);
 
-                predicates.add(categoryPredicate);
+        boolean hasNext = rows.size() > PAGE_SIZE;
+        List<ProductCardDto> content = hasNext ? rows.subList(0, PAGE_SIZE) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductCardDto last = content.get(content.size() - 1);
+            String value = switch (keysetSort) {
+                case "newest" -> last.getCreatedAt() == null ? null : last.getCreatedAt().toString();
+                case "rating" -> String.valueOf(last.getAverageRating());
+                default -> String.valueOf(last.getSellingPrice());
+            };
+            nextCursor = new KeysetCursor(keysetSort, value, last.getId()).encode();
+        }
+
+        Long total = includeTotal ? productRepository.count(filter) : null;
+
+        return new CursorPage<>(new ArrayList<>(content), nextCursor, hasNext, total);
+    }
+
+    private Specification<Product> keysetPredicate(KeysetCursor after) throws ProductException {
+        long lastId = after.id();
+
+        if ("newest".equals(after.sort())) {
+            if (after.value() == null) {
+                // rows without createdAt sort last, only the id is left to page on
+                return (root, query, cb) -> cb.and(
+                        cb.isNull(root.get("createdAt")),
+                        cb.lessThan(root.get("id"), lastId));
+            }
+            LocalDateTime lastCreatedAt;
+            try {
+                lastCreatedAt = LocalDateTime.parse(after.value());
+            } catch (DateTimeParseException e) {
+                throw new ProductException("invalid cursor");
+            }
+            return (root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("createdAt"), lastCreatedAt),
+                    cb.and(cb.equal(root.get("createdAt"), lastCreatedAt),
+                            cb.lessThan(root.get("id"), lastId)),
+                    cb.isNull(root.get("createdAt")));
+        }
+
+        if ("rating".equals(after.sort())) {
+            double lastRating;
+            try {
+                lastRating = Double.parseDouble(String.valueOf(after.value()));
+            } catch (NumberFormatException e) {
+                throw new ProductException("invalid cursor");
+            }
+            return (root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("averageRating"), lastRating),
+                    cb.and(cb.equal(root.get("averageRating"), lastRating),
+                            cb.lessThan(root.get("id"), lastId)));
+        }
+
+        int lastPrice;
+        try {
+            lastPrice = Integer.parseInt(after.value());
+        } catch (NumberFormatException e) {
+            throw new ProductException("invalid cursor");
+        }
+        if ("price_low".equals(after.sort())) {
+            return (root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("sellingPrice"), lastPrice),
+                    cb.and(cb.equal(root.get("sellingPrice"), lastPrice),
+                            cb.greaterThan(root.get("id"), lastId)));
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("sellingPrice"), lastPrice),
+                cb.and(cb.equal(root.get("sellingPrice"), lastPrice),
+                        cb.lessThan(root.get("id"), lastId)));
+    }
+
+    private Specification<Product> productFilter(String category,
+                                                 String color,
+                                                 String size,
+                                                 Integer minPrice,
+                                                 Integer maxPrice,
+                                                 Integer minDiscount,
+                                                 Double minRating,
+                                                 String stock) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+
+            if (category != null) {
+                // the tree already knows every category below this one
+                Set<Long> categoryIds = categoryTreeService.descendantIds(category);
+                predicates.add(categoryIds.isEmpty()
+                        ? criteriaBuilder.disjunction()
+                        : root.get("category").get("id").in(categoryIds));
             }
 
 
@@ -163,9 +369,13 @@ public class ProductServiceImpl implements ProductService {
                 predicates.add(criteriaBuilder.equal(root.get("color"), color));
             }
 
-            // Filter by size (single value)
+            // Filter by size (single value) against the comma separated Sizes column
             if (size != null && !size.isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("size"), size));
+                Expression<String> sizes = criteriaBuilder.function("REPLACE", String.class,
+                        root.get("Sizes"), criteriaBuilder.literal(" "), criteriaBuilder.literal(""));
+                predicates.add(criteriaBuilder.like(
+                        criteriaBuilder.concat(criteriaBuilder.concat(",", sizes), ","),
+                        "%," + size.trim() + ",%"));
             }
 
             if (minPrice != null) {
@@ -183,32 +393,44 @@ public class ProductServiceImpl implements ProductService {
                         minDiscount));
             }
 
-            if (stock != null) {
-                predicates.add(criteriaBuilder.equal(root.get("stock"), stock));
+            if (minRating != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("averageRating"),
+                        minRating));
+            }
+
+            Boolean inStock = parseStock(stock);
+            if (inStock != null) {
+                predicates.add(criteriaBuilder.equal(root.get("in_stock"), inStock));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
-        Pageable pageable;
-        if (sort != null && !sort.isEmpty()) {
-            pageable = switch (sort) {
-                case "price_low" ->
-                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").ascending());
-                case "price_high" ->
-                        PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.by("sellingPrice").descending());
-                default -> PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
-            };
-        } else {
-            pageable = PageRequest.of(pageNumber != null ? pageNumber : 0, 10, Sort.unsorted());
-        }
-
+    }
 
-        return productRepository.findAll(spec, pageable);
+    @Override
+    public List<ProductCardDto> recentlyAddedProduct(String category, Integer limit) {
+        return cardsInOrder(newArrivalsService.newestIds(category, limit != null ? limit : PAGE_SIZE));
     }
 
     @Override
-    public List<Product> recentlyAddedProduct() {
-        return List.of();
+    public List<ProductCardDto> boughtTogether(Long productId, Integer limit) {
+        return cardsInOrder(boughtTogetherService.partnerIds(productId, limit != null ? limit : 6));
+    }
+
+    private List<ProductCardDto> cardsInOrder(List<Long> ids) {
+        Map<Long, ProductCardDto> byId = new HashMap<>();
+        for (ProductCardDto card : productRepository.findCardsByIds(ids)) {
+            byId.put(card.getId(), card);
+        }
+
+        List<ProductCardDto> cards = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductCardDto card = byId.get(id);
+            if (card != null) {
+                cards.add(card);
+            }
+        }
+        return cards;
     }
 
     @Override
@@ -0,0 +1,201 @@
+package com.zosh.service.impl;
+
+import com.zosh.service.ProductStatsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind view and add-to-cart counters. Hot paths only bump a
+ * striped LongAdder; a scheduled flush writes the deltas since the last
+ * flush as one JDBC batch, and the bean drains on shutdown.
+ *
+ * Adders are never reset: each entry remembers how much of its sum is
+ * already in the database, so an increment racing with a flush simply
+ * lands in the next one, and a failed flush is retried as a whole.
+ * An entry that saw no increments since the previous flush is dropped,
+ * so the map only holds products that are actually being viewed.
+ */
+@Service
+public class ProductStatsServiceImpl implements ProductStatsService {
+
+    private static final String UPDATE_SQL =
+            "UPDATE product_stats SET view_count = view_count + ?, cart_add_count = cart_add_count + ? " +
+            "WHERE product_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO product_stats (product_id, view_count, cart_add_count) VALUES (?, 0, 0)";
+    private static final String EXISTING_SQL =
+            "SELECT product_id FROM product_stats WHERE product_id IN (%s)";
+
+    // stays well below the 2100 parameter limit of SQL Server
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    public ProductStatsServiceImpl(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        if (productId != null) {
+            increment(productId, true);
+        }
+    }
+
+    @Override
+    public void recordCartAdd(Long productId) {
+        if (productId != null) {
+            increment(productId, false);
+        }
+    }
+
+    private void increment(Long productId, boolean view) {
+        while (true) {
+            Counters c = counters.computeIfAbsent(productId, id -> new Counters());
+            LongAdder adder = view ? c.views : c.cartAdds;
+            adder.increment();
+            if (!c.retired) {
+                return;
+            }
+            // raced with prune(): undo and go again, either on the same entry
+            // if prune kept it or on a fresh one if it was dropped
+            adder.decrement();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${product.stats.flush-interval-ms:10000}")
+    public synchronized int flush() {
+        List<Delta> deltas = new ArrayList<>();
+        List<Map.Entry<Long, Counters>> idle = new ArrayList<>();
+        for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            long views = c.views.sum();
+            long cartAdds = c.cartAdds.sum();
+            if (views != c.flushedViews || cartAdds != c.flushedCartAdds) {
+                deltas.add(new Delta(entry.getKey(), c, views, cartAdds));
+            } else {
+                idle.add(entry);
+            }
+        }
+        prune(idle);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // one transaction, so a failed flush leaves nothing half written
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+        } catch (RuntimeException e) {
+            // nothing is marked flushed, the next run writes the same deltas again
+            System.out.println("product stats flush failed: " + e.getMessage());
+            return 0;
+        }
+
+        for (Delta d : deltas) {
+            d.counters().flushedViews = d.views();
+            d.counters().flushedCartAdds = d.cartAdds();
+            d.counters().stored = true;
+        }
+        return deltas.size();
+    }
+
+    @PreDestroy
+    public void drain() {
+        int flushed = flush();
+        System.out.println("product stats drained " + flushed + " products on shutdown");
+    }
+
+    // entries with nothing left to write and no new increments are dropped;
+    // retired is set before the sums are read again, so an increment that
+    // the second read misses sees the flag and moves to a fresh entry
+    private void prune(List<Map.Entry<Long, Counters>> idle) {
+        for (Map.Entry<Long, Counters> entry : idle) {
+            Counters c = entry.getValue();
+            c.retired = true;
+            if (c.views.sum() == c.flushedViews && c.cartAdds.sum() == c.flushedCartAdds) {
+                counters.remove(entry.getKey(), c);
+            } else {
+                c.retired = false;
+            }
+        }
+    }
+
+    private void write(List<Delta> deltas) {
+        // create missing rows first, so the update never has to report how many
+        // rows it touched; batched drivers may only return SUCCESS_NO_INFO. If
+        // another instance inserts the same row concurrently the whole flush
+        // rolls back and retries
+        insertMissingRows(deltas);
+
+        jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, deltas.size(), (ps, d) -> {
+            ps.setLong(1, d.views() - d.counters().flushedViews);
+            ps.setLong(2, d.cartAdds() - d.counters().flushedCartAdds);
+            ps.setLong(3, d.productId());
+        });
+    }
+
+    private void insertMissingRows(List<Delta> deltas) {
+        List<Long> unknown = new ArrayList<>();
+        for (Delta d : deltas) {
+            if (!d.counters().stored) {
+                unknown.add(d.productId());
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < unknown.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = unknown.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, unknown.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(String.format(EXISTING_SQL, placeholders),
+                    Long.class, chunk.toArray()));
+        }
+
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : unknown) {
+            if (!existing.contains(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(),
+                    (ps, productId) -> ps.setLong(1, productId));
+        }
+    }
+
+    private static class Counters {
+
+        final LongAdder views = new LongAdder();
+        final LongAdder cartAdds = new LongAdder();
+
+        // set by prune() while it decides whether to drop the entry
+        volatile boolean retired;
+
+        // only touched by flush(), which is synchronized
+        long flushedViews;
+        long flushedCartAdds;
+        boolean stored;
+    }
+
+    private record Delta(Long productId, Counters counters, long views, long cartAdds) {
+    }
+}
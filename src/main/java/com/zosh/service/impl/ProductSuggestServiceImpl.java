@@ -0,0 +1,133 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.ProductChangeType;
+import com.zosh.event.ProductChangedEvent;
+import com.zosh.model.Category;
+import com.zosh.model.Product;
+import com.zosh.repository.ProductRepository;
+import com.zosh.service.ProductSuggestService;
+import com.zosh.utils.Bm25Index;
+import com.zosh.utils.CompletionTrie;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Typeahead over product titles, title words and category names. New
+ * products are added as they are created; edits and deletes only lower
+ * or remove weights, which the trie cannot do in place, so they mark it
+ * dirty and the next background rebuild picks them up.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSuggestServiceImpl implements ProductSuggestService {
+
+    private static final int TOP_N = 10;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    private volatile CompletionTrie trie = new CompletionTrie(TOP_N);
+
+    // non-null while a rebuild is running, so live inserts reach both copies
+    private volatile CompletionTrie building;
+
+    private volatile boolean dirty = false;
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return trie.complete(prefix, Math.min(Math.max(limit, 1), TOP_N));
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        CompletionTrie fresh = new CompletionTrie(TOP_N);
+        building = fresh;
+        dirty = false;
+        try {
+            Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            Page<Product> page;
+            do {
+                page = productRepository.findAll(pageable);
+                for (Product product : page.getContent()) {
+                    add(fresh, product);
+                }
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+
+            trie = fresh;
+        } finally {
+            building = null;
+        }
+        return fresh.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int phrases = rebuild();
+        System.out.println("product suggest trie built with " + phrases + " phrases");
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.rebuild-interval-ms:600000}",
+            initialDelayString = "${product.suggest.rebuild-interval-ms:600000}")
+    public void rebuildIfDirty() {
+        if (dirty) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        if (event.getType() != ProductChangeType.CREATED) {
+            dirty = true;
+            return;
+        }
+        add(trie, product);
+        CompletionTrie pending = building;
+        if (pending != null) {
+            add(pending, product);
+        }
+    }
+
+    private void add(CompletionTrie target, Product product) {
+        long weight = 1L + Math.max(product.getNumRatings(), 0);
+        for (String phrase : phrases(product)) {
+            target.add(phrase, weight);
+        }
+    }
+
+    private Set<String> phrases(Product product) {
+        Set<String> phrases = new LinkedHashSet<>();
+        if (product.getTitle() != null) {
+            phrases.add(product.getTitle());
+            for (String token : Bm25Index.tokenize(product.getTitle())) {
+                if (token.length() > 1 && !token.chars().allMatch(Character::isDigit)) {
+                    phrases.add(token);
+                }
+            }
+        }
+        Category category = product.getCategory();
+        while (category != null) {
+            if (category.getName() != null) {
+                phrases.add(category.getName());
+            }
+            category = category.getParentCategory();
+        }
+        return phrases;
+    }
+}
@@ -4,13 +4,16 @@ import com.zosh.exception.ReviewNotFoundException;
 import com.zosh.model.Product;
 import com.zosh.model.Review;
 import com.zosh.model.User;
+import com.zosh.repository.ProductRepository;
 import com.zosh.repository.ReviewRepository;
 import com.zosh.request.CreateReviewRequest;
 import com.zosh.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.naming.AuthenticationException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -19,8 +22,11 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewRepository reviewRepository;
 
+    private final ProductRepository productRepository;
+
 
     @Override
+    @Transactional
     public Review createReview(CreateReviewRequest req,
                                User user,
                                Product product) {
@@ -32,9 +38,9 @@ public class ReviewServiceImpl implements ReviewService {
         newReview.setUser(user);
         newReview.setProduct(product);
 
-        product.getReviews().add(newReview);
-
-        return reviewRepository.save(newReview);
+        Review savedReview = reviewRepository.save(newReview);
+        adjustRatings(product.getId(), 1, savedReview.getRating());
+        return savedReview;
     }
 
     @Override
@@ -44,6 +50,7 @@ public class ReviewServiceImpl implements ReviewService {
 
 
     @Override
+    @Transactional
     public Review updateReview(Long reviewId,
                                String reviewText,
                                double rating,
@@ -55,12 +62,21 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AuthenticationException("You do not have permission to delete this review");
         }
 
+        double previousRating = review.getRating();
         review.setReviewText(reviewText);
         review.setRating(rating);
-        return reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+
+        if (previousRating != rating) {
+            Long productId = review.getProduct().getId();
+            adjustRatings(productId, -1, previousRating);
+            adjustRatings(productId, 1, rating);
+        }
+        return savedReview;
     }
 
     @Override
+    @Transactional
     public void deleteReview(Long reviewId,Long userId) throws ReviewNotFoundException,
             AuthenticationException {
         Review review=reviewRepository.findById(reviewId)
@@ -69,6 +85,16 @@ public class ReviewServiceImpl implements ReviewService {
             throw new AuthenticationException("You do not have permission to delete this review");
         }
         reviewRepository.delete(review);
+        adjustRatings(review.getProduct().getId(), -1, review.getRating());
+    }
+
+    // count is +1 or -1, the rating lands in the histogram bucket of its nearest star
+    private void adjustRatings(Long productId, int count, double rating) {
+        int[] stars = new int[5];
+        int star = (int) Math.max(1, Math.min(5, Math.round(rating)));
+        stars[star - 1] = count;
+        productRepository.adjustRatings(productId, count, count * rating,
+                stars[0], stars[1], stars[2], stars[3], stars[4], LocalDateTime.now());
     }
 
 }
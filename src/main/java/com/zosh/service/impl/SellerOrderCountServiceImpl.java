@@ -0,0 +1,118 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.model.SellerOrderCount;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.SellerOrderCountRepository;
+import com.zosh.service.SellerOrderCountService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-status order counts for the seller inbox, one row per seller and
+ * status. Every order write moves a count in the same transaction, so the
+ * dashboard reads a handful of rows instead of counting the orders table.
+ *
+ * A seller's rows are created on first use, seeded from one GROUP BY over
+ * their existing orders. That runs in its own transaction before the
+ * caller writes any order, so the seed never waits on the caller's locks
+ * and every later write lands on a row that already exists.
+ */
+@Service
+public class SellerOrderCountServiceImpl implements SellerOrderCountService {
+
+    private final SellerOrderCountRepository countRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate ownTransaction;
+
+    // sellers whose rows are known to exist
+    private final Set<Long> prepared = ConcurrentHashMap.newKeySet();
+
+    public SellerOrderCountServiceImpl(SellerOrderCountRepository countRepository,
+                                       OrderRepository orderRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.countRepository = countRepository;
+        this.orderRepository = orderRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void prepare(Collection<Long> sellerIds) {
+        for (Long sellerId : sellerIds) {
+            if (sellerId != null && !prepared.contains(sellerId)) {
+                seed(sellerId);
+                prepared.add(sellerId);
+            }
+        }
+    }
+
+    @Override
+    public void adjust(Long sellerId, OrderStatus from, OrderStatus to) {
+        if (sellerId == null || from == to) {
+            return;
+        }
+        prepare(List.of(sellerId));
+        if (from != null) {
+            countRepository.adjust(sellerId, from, -1);
+        }
+        if (to != null) {
+            countRepository.adjust(sellerId, to, 1);
+        }
+    }
+
+    @Override
+    public Map<OrderStatus, Long> getCounts(Long sellerId) {
+        prepare(List.of(sellerId));
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (SellerOrderCount row : countRepository.findBySellerId(sellerId)) {
+            counts.put(row.getOrderStatus(), row.getOrderCount());
+        }
+        return counts;
+    }
+
+    private void seed(Long sellerId) {
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                Set<OrderStatus> missing = EnumSet.allOf(OrderStatus.class);
+                for (SellerOrderCount row : countRepository.findBySellerId(sellerId)) {
+                    missing.remove(row.getOrderStatus());
+                }
+                if (missing.isEmpty()) {
+                    return;
+                }
+
+                Map<OrderStatus, Long> existing = new EnumMap<>(OrderStatus.class);
+                for (Object[] row : orderRepository.countBySellerGroupByStatus(sellerId)) {
+                    if (row[0] != null) {
+                        existing.put((OrderStatus) row[0], (Long) row[1]);
+                    }
+                }
+                for (OrderStatus orderStatus : missing) {
+                    SellerOrderCount count = new SellerOrderCount();
+                    count.setSellerId(sellerId);
+                    count.setOrderStatus(orderStatus);
+                    count.setOrderCount(existing.getOrDefault(orderStatus, 0L));
+                    countRepository.save(count);
+                }
+                countRepository.flush();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another request or instance seeded the same seller first
+        }
+    }
+}
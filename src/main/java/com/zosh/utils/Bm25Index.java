@@ -0,0 +1,177 @@
+package com.zosh.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Small in-memory inverted index ranked with Okapi BM25.
+ * Documents are identified by a long id and replaced wholesale on re-add.
+ * The last query term is also matched as a prefix so partially typed
+ * words still find results, like the old LIKE '%q%' search did.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<Long, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(long id, String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+                        .put(id, entry.getValue());
+            }
+            documents.put(id, frequencies);
+            documentLengths.put(id, tokens.size());
+            totalLength += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Hits search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int docCount = documents.size();
+            if (docCount == 0) {
+                return new Hits(Collections.emptyList(), 0);
+            }
+            double avgLength = (double) totalLength / docCount;
+
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean last = i == terms.size() - 1;
+
+                if (last) {
+                    SortedMap<String, Map<Long, Integer>> expansions =
+                            postings.subMap(term, term + Character.MAX_VALUE);
+                    int expanded = 0;
+                    for (Map.Entry<String, Map<Long, Integer>> entry : expansions.entrySet()) {
+                        if (expanded++ == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        score(entry.getValue(), docCount, avgLength, scores);
+                    }
+                } else {
+                    Map<Long, Integer> posting = postings.get(term);
+                    if (posting != null) {
+                        score(posting, docCount, avgLength, scores);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = offset; i < ranked.size() && ids.size() < limit; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return new Hits(ids, ranked.size());
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void score(Map<Long, Integer> posting,
+                       int docCount,
+                       double avgLength,
+                       Map<Long, Double> scores) {
+        double idf = Math.log(1 + (docCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+            double tf = entry.getValue();
+            double length = documentLengths.get(entry.getKey());
+            double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+            scores.merge(entry.getKey(), idf * norm, Double::sum);
+        }
+    }
+
+    private void removeInternal(long id) {
+        Map<String, Integer> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        Integer length = documentLengths.remove(id);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    public record Hits(List<Long> ids, int total) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.zosh.utils;
+
+import com.zosh.model.Cart;
+import com.zosh.model.CartItem;
+
+/**
+ * Cart totals are maintained incrementally by the write paths: load the
+ * cart, {@link #ensureFresh}, change the items, then {@link #apply} the
+ * difference. Reads only call {@link #ensureFresh}, which recomputes in
+ * memory when the cart's marker says the stored totals can't be trusted.
+ */
+public final class CartTotals {
+
+    private CartTotals() {
+    }
+
+    public static void ensureFresh(Cart cart) {
+        if (!Boolean.TRUE.equals(cart.getTotalsValid())) {
+            recalculate(cart);
+        }
+    }
+
+    public static void recalculate(Cart cart) {
+        int quantity = 0;
+        int mrp = 0;
+        int selling = 0;
+        for (CartItem item : cart.getCartItems()) {
+            quantity += item.getQuantity();
+            mrp += valueOf(item.getMrpPrice());
+            selling += valueOf(item.getSellingPrice());
+        }
+        set(cart, quantity, mrp, selling);
+    }
+
+    public static void apply(Cart cart, int quantityDelta, int mrpDelta, int sellingDelta) {
+        int selling = (int) Math.round(cart.getTotalSellingPrice()) + cart.getCouponPrice();
+        set(cart,
+                cart.getTotalItem() + quantityDelta,
+                cart.getTotalMrpPrice() + mrpDelta,
+                selling + sellingDelta);
+    }
+
+    public static void add(Cart cart, CartItem item) {
+        apply(cart, item.getQuantity(), valueOf(item.getMrpPrice()), valueOf(item.getSellingPrice()));
+    }
+
+    public static void remove(Cart cart, CartItem item) {
+        apply(cart, -item.getQuantity(), -valueOf(item.getMrpPrice()), -valueOf(item.getSellingPrice()));
+    }
+
+    private static void set(Cart cart, int quantity, int mrp, int selling) {
+        cart.setTotalItem(quantity);
+        cart.setTotalMrpPrice(mrp);
+        cart.setTotalSellingPrice(selling - cart.getCouponPrice());
+        cart.setDiscount(mrp <= 0 ? 0 : (int) (((double) (mrp - selling) / mrp) * 100));
+        cart.setTotalsValid(true);
+    }
+
+    private static int valueOf(Integer price) {
+        return price == null ? 0 : price;
+    }
+}
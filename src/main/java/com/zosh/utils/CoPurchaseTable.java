@@ -0,0 +1,105 @@
+package com.zosh.utils;
+
+import java.util.Arrays;
+
+/**
+ * Immutable top-K partner lists, laid out as sorted primitive arrays:
+ * partners of products[i] are partners[offsets[i] .. offsets[i + 1]),
+ * strongest first. Safe to share between threads once built.
+ */
+public class CoPurchaseTable {
+
+    public static final CoPurchaseTable EMPTY =
+            new CoPurchaseTable(new long[0], new int[]{0}, new long[0]);
+
+    private final long[] products;
+    private final int[] offsets;
+    private final long[] partners;
+
+    private CoPurchaseTable(long[] products, int[] offsets, long[] partners) {
+        this.products = products;
+        this.offsets = offsets;
+        this.partners = partners;
+    }
+
+    public long[] partnersOf(long productId, int limit) {
+        int i = Arrays.binarySearch(products, productId);
+        if (i < 0) {
+            return new long[0];
+        }
+        int from = offsets[i];
+        int to = Math.min(offsets[i + 1], from + limit);
+        return Arrays.copyOfRange(partners, from, to);
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    /**
+     * Pairs are keyed (low id << 32 | high id). Every pair is offered to
+     * both of its products; each keeps its topK strongest partners.
+     */
+    public static CoPurchaseTable build(LongLongHashMap pairCounts, int topK) {
+        int n = pairCounts.size();
+        long[] pairKeys = new long[n];
+        long[] pairValues = new long[n];
+        int[] filled = new int[1];
+        pairCounts.forEach((key, value) -> {
+            pairKeys[filled[0]] = key;
+            pairValues[filled[0]] = value;
+            filled[0]++;
+        });
+
+        // sort pair indexes by count, packed as (count << 32 | index) so no boxing is needed
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (Math.min(pairValues[i], Integer.MAX_VALUE) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        // every product that appears in any pair, sorted for binary search
+        long[] ids = new long[n * 2];
+        for (int i = 0; i < n; i++) {
+            ids[2 * i] = pairKeys[i] >>> 32;
+            ids[2 * i + 1] = pairKeys[i] & 0xFFFFFFFFL;
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        long[] products = Arrays.copyOf(ids, distinct);
+
+        int[] taken = new int[distinct];
+        long[] slotPartners = new long[distinct * topK];
+        for (int o = n - 1; o >= 0; o--) {
+            int pair = (int) (order[o] & 0xFFFFFFFFL);
+            long low = pairKeys[pair] >>> 32;
+            long high = pairKeys[pair] & 0xFFFFFFFFL;
+            take(products, taken, slotPartners, topK, low, high);
+            take(products, taken, slotPartners, topK, high, low);
+        }
+
+        int[] offsets = new int[distinct + 1];
+        for (int i = 0; i < distinct; i++) {
+            offsets[i + 1] = offsets[i] + taken[i];
+        }
+        long[] partners = new long[offsets[distinct]];
+        for (int i = 0; i < distinct; i++) {
+            System.arraycopy(slotPartners, i * topK, partners, offsets[i], taken[i]);
+        }
+        return new CoPurchaseTable(products, offsets, partners);
+    }
+
+    private static void take(long[] products, int[] taken, long[] slotPartners,
+                             int topK, long product, long partner) {
+        int i = Arrays.binarySearch(products, product);
+        if (taken[i] < topK) {
+            slotPartners[i * topK + taken[i]] = partner;
+            taken[i]++;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.zosh.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie of completion phrases. Every node keeps the top-N phrases of
+ * its subtree by weight, so a lookup is a walk down the prefix followed by
+ * a copy of one short list, independent of how many phrases match.
+ * Weights only grow here; stale entries are dropped by rebuilding.
+ */
+public class CompletionTrie {
+
+    private final int topN;
+
+    private final Node root = new Node("");
+    private final Map<String, Long> weights = new HashMap<>();
+    private final Map<String, String> displays = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CompletionTrie(int topN) {
+        this.topN = topN;
+    }
+
+    public void add(String phrase, long weight) {
+        String key = normalize(phrase);
+        if (key.isEmpty() || weight <= 0) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            long total = weights.merge(key, weight, Long::sum);
+            displays.putIfAbsent(key, phrase.trim());
+
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                Node child = node.children.get(key.charAt(depth));
+                if (child == null) {
+                    child = new Node(key.substring(depth));
+                    node.children.put(key.charAt(depth), child);
+                    offer(child, key, total);
+                    return;
+                }
+
+                int common = commonPrefix(child.label, key, depth);
+                if (common < child.label.length()) {
+                    // split the edge, the new middle node covers exactly what child did
+                    Node middle = new Node(child.label.substring(0, common));
+                    middle.top.addAll(child.top);
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    node.children.put(middle.label.charAt(0), middle);
+                    child = middle;
+                }
+                offer(child, key, total);
+                node = child;
+                depth += common;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                Node child = node.children.get(key.charAt(depth));
+                if (child == null) {
+                    return result;
+                }
+                int common = commonPrefix(child.label, key, depth);
+                if (depth + common < key.length() && common < child.label.length()) {
+                    return result;
+                }
+                node = child;
+                depth += common;
+            }
+
+            for (int i = 0; i < node.top.size() && result.size() < limit; i++) {
+                result.add(displays.get(node.top.get(i).key));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return weights.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").stripLeading();
+    }
+
+    private void offer(Node node, String key, long weight) {
+        List<Entry> top = node.top;
+        top.removeIf(entry -> entry.key.equals(key));
+
+        int at = 0;
+        while (at < top.size() && top.get(at).weight >= weight) {
+            at++;
+        }
+        if (at < topN) {
+            top.add(at, new Entry(key, weight));
+            if (top.size() > topN) {
+                top.remove(top.size() - 1);
+            }
+        }
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int i = 0;
+        while (i < label.length() && offset + i < key.length()
+                && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static class Node {
+
+        String label;
+        final Map<Character, Node> children = new HashMap<>();
+        final List<Entry> top = new ArrayList<>(4);
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private record Entry(String key, long weight) {
+    }
+}
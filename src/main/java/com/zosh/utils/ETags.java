@@ -0,0 +1,52 @@
+package com.zosh.utils;
+
+import com.zosh.dto.ProductCardDto;
+import com.zosh.dto.VersionStampView;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Strong ETags built from entity versions, never from the serialized
+ * body, so they can be checked before anything is loaded.
+ */
+public class ETags {
+
+    public static String of(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            key.append(part).append(':');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static String of(String kind, VersionStampView... stamps) {
+        StringBuilder key = new StringBuilder(kind);
+        for (VersionStampView stamp : stamps) {
+            key.append('|').append(stamp.getCount())
+                    .append('|').append(stamp.getVersion())
+                    .append('|').append(stamp.getUpdatedAt());
+        }
+        return of(key);
+    }
+
+    // a page changes when a product on it changes or the page shifts
+    public static String forPage(Page<ProductCardDto> page) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getTotalElements());
+        for (ProductCardDto card : page.getContent()) {
+            key.append('|').append(card.getId()).append('@').append(card.getVersion());
+        }
+        return of("products", key);
+    }
+
+    // updatedAt is always JVM local time, see Product.updatedAt
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,106 @@
+package com.zosh.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact signed token for an anonymous cart, small enough for a cookie.
+ * The payload is "productId,quantity,size" lines joined by ';', followed
+ * by a truncated HMAC-SHA256 of it. Prices are never part of the token;
+ * a token that is too long, malformed or badly signed reads as empty.
+ */
+public class GuestCartCodec {
+
+    public static final int MAX_LINES = 30;
+    public static final int MAX_QUANTITY = 99;
+    public static final int MAX_TOKEN_LENGTH = 3000;
+
+    private static final String VERSION = "1";
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final SecretKeySpec key;
+
+    public GuestCartCodec(byte[] secret) {
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    public String encode(List<Line> lines) {
+        StringBuilder payload = new StringBuilder(VERSION);
+        for (Line line : lines) {
+            payload.append(payload.length() == VERSION.length() ? ':' : ';')
+                    .append(line.productId()).append(',')
+                    .append(line.quantity()).append(',')
+                    .append(URLEncoder.encode(line.size() == null ? "" : line.size(), StandardCharsets.UTF_8));
+        }
+        byte[] bytes = payload.toString().getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        return base64.encodeToString(bytes) + "." + base64.encodeToString(sign(bytes));
+    }
+
+    public List<Line> decode(String token) {
+        List<Line> lines = new ArrayList<>();
+        if (token == null || token.isBlank() || token.length() > MAX_TOKEN_LENGTH) {
+            return lines;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return lines;
+        }
+
+        byte[] bytes;
+        byte[] signature;
+        try {
+            Base64.Decoder base64 = Base64.getUrlDecoder();
+            bytes = base64.decode(token.substring(0, dot));
+            signature = base64.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return lines;
+        }
+        if (!MessageDigest.isEqual(sign(bytes), signature)) {
+            return lines;
+        }
+
+        String payload = new String(bytes, StandardCharsets.UTF_8);
+        if (!payload.startsWith(VERSION + ":")) {
+            return lines;
+        }
+        try {
+            for (String entry : payload.substring(VERSION.length() + 1).split(";")) {
+                String[] parts = entry.split(",", 3);
+                if (parts.length < 3 || lines.size() == MAX_LINES) {
+                    continue;
+                }
+                String size = URLDecoder.decode(parts[2], StandardCharsets.UTF_8);
+                lines.add(new Line(Long.parseLong(parts[0]),
+                        size.isEmpty() ? null : size,
+                        Math.min(Integer.parseInt(parts[1]), MAX_QUANTITY)));
+            }
+        } catch (IllegalArgumentException e) {
+            // signed by us, so only an old format could get here
+            return new ArrayList<>();
+        }
+        return lines;
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    public record Line(long productId, String size, int quantity) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.zosh.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. It carries the sort it
+ * was issued for plus the sort value and id of the last row on the page,
+ * so the next page can continue with a WHERE instead of an OFFSET.
+ */
+public record KeysetCursor(String sort, String value, long id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "~";
+
+    public String encode() {
+        String raw = sort + SEPARATOR + (value == null ? NULL_VALUE : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+
+        String value = raw.substring(first + 1, last);
+        try {
+            return new KeysetCursor(raw.substring(0, first),
+                    NULL_VALUE.equals(value) ? null : value,
+                    Long.parseLong(raw.substring(last + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.zosh.utils;
+
+/**
+ * Open addressing long to long map with linear probing, no boxing.
+ * Key 0 is reserved as the empty marker. Not thread safe.
+ */
+public class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("key 0 is reserved");
+        }
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return values[slot] += delta;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size >= resizeAt) {
+            grow();
+        }
+        return delta;
+    }
+
+    public long get(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    public interface Visitor {
+        void visit(long key, long value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.zosh.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongPredicate;
+
+/**
+ * Fixed size ring of the most recently pushed ids. Writers are
+ * serialised; readers never lock. A reader walks back from the head it
+ * saw and afterwards drops any slot a concurrent writer may have
+ * overwritten in the meantime.
+ */
+public class RecentIdRing {
+
+    private final AtomicLongArray slots;
+    private final int capacity;
+
+    // number of ids ever pushed, the newest one sits at (head - 1) % capacity
+    private volatile long head;
+
+    public RecentIdRing(int capacity) {
+        this.capacity = capacity;
+        this.slots = new AtomicLongArray(capacity);
+    }
+
+    // returns the id that fell off the ring, 0 while the ring is still filling up
+    public synchronized long push(long id) {
+        long next = head;
+        int slot = (int) (next % capacity);
+        long displaced = next >= capacity ? slots.get(slot) : 0;
+        slots.set(slot, id);
+        head = next + 1;
+        return displaced;
+    }
+
+    public List<Long> newest(int limit, LongPredicate hidden) {
+        long seen = head;
+        long oldest = Math.max(0, seen - capacity);
+
+        List<Long> ids = new ArrayList<>(Math.min(limit, capacity));
+        List<Long> positions = new ArrayList<>(Math.min(limit, capacity));
+        for (long position = seen - 1; position >= oldest && ids.size() < limit; position--) {
+            long id = slots.get((int) (position % capacity));
+            if (!hidden.test(id)) {
+                ids.add(id);
+                positions.add(position);
+            }
+        }
+
+        long valid = head - capacity;
+        if (valid > oldest) {
+            // writers lapped part of what we read, keep only untouched slots
+            List<Long> kept = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                if (positions.get(i) >= valid) {
+                    kept.add(ids.get(i));
+                }
+            }
+            return kept;
+        }
+        return ids;
+    }
+
+    public boolean contains(long id) {
+        long seen = head;
+        for (long position = seen - 1; position >= Math.max(0, seen - capacity); position--) {
+            if (slots.get((int) (position % capacity)) == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
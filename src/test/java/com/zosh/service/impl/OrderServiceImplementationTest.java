@@ -2,14 +2,22 @@ package com.zosh.service.impl;
 
 import com.zosh.domain.OrderStatus;
 import com.zosh.domain.PaymentStatus;
+import com.zosh.dto.OrderLineDto;
+import com.zosh.dto.OrderSummaryDto;
+import com.zosh.dto.ProductCardDto;
 import com.zosh.exception.OrderException;
 import com.zosh.model.*;
 import com.zosh.repository.AddressRepository;
 import com.zosh.repository.OrderItemRepository;
 import com.zosh.repository.OrderRepository;
+import com.zosh.repository.ProductRepository;
 import com.zosh.repository.UserRepository;
 import com.zosh.service.CartService;
+import com.zosh.service.InventoryService;
+import com.zosh.response.CursorPage;
 import com.zosh.service.OrderItemService;
+import com.zosh.service.SellerOrderCountService;
+import com.zosh.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,7 +25,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -52,6 +62,15 @@ class OrderServiceImplementationTest {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SellerOrderCountService sellerOrderCountService;
+
     @InjectMocks
     private OrderServiceImplementation orderService;
 
@@ -138,11 +157,10 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should successfully create orders when cart has items from single seller")
-    void shouldCreateOrderSuccessfully_WhenCartHasItemsFromSingleSeller() {
+    void shouldCreateOrderSuccessfully_WhenCartHasItemsFromSingleSeller() throws OrderException {
         // Arrange
         when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         Set<Order> result = orderService.createOrder(testUser, testAddress, testCart);
@@ -159,13 +177,14 @@ class OrderServiceImplementationTest {
         assertThat(createdOrder.getTotalItem()).isEqualTo(2);
         
         verify(addressRepository).save(testAddress);
-        verify(orderRepository).save(any(Order.class));
-        verify(orderItemRepository).save(any(OrderItem.class));
+        verify(orderRepository).save(argThat((Order order) -> order.getOrderItems().size() == 1
+                && order.getOrderItems().get(0).getOrder() == order));
+        verifyNoInteractions(orderItemRepository);
     }
 
     @Test
     @DisplayName("Should create multiple orders when cart has items from multiple sellers")
-    void shouldCreateMultipleOrders_WhenCartHasItemsFromMultipleSellers() {
+    void shouldCreateMultipleOrders_WhenCartHasItemsFromMultipleSellers() throws OrderException {
         // Arrange
         Seller secondSeller = new Seller();
         secondSeller.setId(2L);
@@ -206,24 +225,25 @@ class OrderServiceImplementationTest {
         when(orderRepository.save(any(Order.class)))
                 .thenReturn(testOrder)
                 .thenReturn(secondOrder);
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         Set<Order> result = orderService.createOrder(testUser, testAddress, testCart);
 
         // Assert
         assertThat(result).hasSize(2);
-        verify(orderRepository, times(2)).save(any(Order.class));
-        verify(orderItemRepository, times(2)).save(any(OrderItem.class));
+        verify(orderRepository, times(2)).save(argThat((Order order) -> order.getOrderItems().size() == 1));
+        verifyNoInteractions(orderItemRepository);
+        verify(sellerOrderCountService).prepare(Set.of(1L, 2L));
+        verify(sellerOrderCountService).adjust(1L, null, OrderStatus.PENDING);
+        verify(sellerOrderCountService).adjust(2L, null, OrderStatus.PENDING);
     }
 
     @Test
     @DisplayName("Should add address to user when address not already present")
-    void shouldAddAddressToUser_WhenAddressNotAlreadyPresent() {
+    void shouldAddAddressToUser_WhenAddressNotAlreadyPresent() throws OrderException {
         // Arrange
         when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         orderService.createOrder(testUser, testAddress, testCart);
@@ -234,14 +254,13 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should not duplicate address when address already exists for user")
-    void shouldNotDuplicateAddress_WhenAddressAlreadyExistsForUser() {
+    void shouldNotDuplicateAddress_WhenAddressAlreadyExistsForUser() throws OrderException {
         // Arrange
         testUser.getAddresses().add(testAddress);
         int initialAddressCount = testUser.getAddresses().size();
         
         when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
         when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         orderService.createOrder(testUser, testAddress, testCart);
@@ -252,7 +271,7 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should handle empty cart gracefully")
-    void shouldHandleEmptyCart_Gracefully() {
+    void shouldHandleEmptyCart_Gracefully() throws OrderException {
         // Arrange
         testCart.setCartItems(new HashSet<>());
         when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
@@ -265,6 +284,35 @@ class OrderServiceImplementationTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    @Test
+    @DisplayName("Should reserve stock for all created orders")
+    void shouldReserveStock_WhenCreatingOrder() throws OrderException {
+        // Arrange
+        when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        // Act
+        Set<Order> result = orderService.createOrder(testUser, testAddress, testCart);
+
+        // Assert
+        verify(inventoryService).reserve(result);
+    }
+
+    @Test
+    @DisplayName("Should throw OrderException when stock can't be reserved")
+    void shouldThrowOrderException_WhenStockCantBeReserved() throws OrderException {
+        // Arrange
+        when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        doThrow(new OrderException("not enough stock for product 1"))
+                .when(inventoryService).reserve(anyCollection());
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrder(testUser, testAddress, testCart))
+                .isInstanceOf(OrderException.class)
+                .hasMessage("not enough stock for product 1");
+    }
+
     @Test
     @DisplayName("Should find order by ID successfully when order exists")
     void shouldFindOrderById_WhenOrderExists() throws OrderException {
@@ -297,33 +345,87 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should return user order history when user has orders")
-    void shouldReturnUserOrderHistory_WhenUserHasOrders() {
+    void shouldReturnUserOrderHistory_WhenUserHasOrders() throws OrderException {
         // Arrange
-        List<Order> expectedOrders = Arrays.asList(testOrder);
-        when(orderRepository.findByUserId(1L)).thenReturn(expectedOrders);
+        OrderSummaryDto summary = summary(1L, LocalDateTime.now());
+        ProductCardDto card = new ProductCardDto();
+        card.setId(1L);
+        when(orderRepository.findHistory(eq(1L), any(Pageable.class))).thenReturn(List.of(summary));
+        when(orderItemRepository.findLinesByOrderIds(List.of(1L)))
+                .thenReturn(List.of(new OrderLineDto(1L, 1L, 1L, "M", 2, 1000, 800)));
+        when(productRepository.findCardsByIds(Set.of(1L))).thenReturn(List.of(card));
 
         // Act
-        List<Order> result = orderService.usersOrderHistory(1L);
+        CursorPage<OrderSummaryDto> result = orderService.usersOrderHistory(1L, null, null);
 
         // Assert
-        assertThat(result).isNotEmpty();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(testOrder);
-        verify(orderRepository).findByUserId(1L);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        assertThat(result.getContent().get(0).getOrderItems()).hasSize(1);
+        assertThat(result.getContent().get(0).getOrderItems().get(0).getProduct()).isSameAs(card);
+        verify(orderRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should return a cursor when there are more orders than the page size")
+    void shouldReturnNextCursor_WhenMoreOrdersThanPageSize() throws OrderException {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(orderRepository.findHistory(eq(1L), argThat((Pageable p) -> p.getPageSize() == 3)))
+                .thenReturn(List.of(summary(3L, now), summary(2L, now.minusDays(1)), summary(1L, now.minusDays(2))));
+        when(orderItemRepository.findLinesByOrderIds(List.of(3L, 2L))).thenReturn(Collections.emptyList());
+
+        // Act
+        CursorPage<OrderSummaryDto> result = orderService.usersOrderHistory(1L, null, 2);
+
+        // Assert
+        assertThat(result.getContent()).extracting(OrderSummaryDto::getId).containsExactly(3L, 2L);
+        assertThat(result.isHasNext()).isTrue();
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertThat(next.id()).isEqualTo(2L);
+        assertThat(next.value()).isEqualTo(now.minusDays(1).toString());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor position")
+    void shouldContinueAfterCursor_WhenCursorGiven() throws OrderException {
+        // Arrange
+        LocalDateTime last = LocalDateTime.now().minusDays(1);
+        String cursor = new KeysetCursor("order_date", last.toString(), 2L).encode();
+        when(orderRepository.findHistoryAfter(eq(1L), eq(last), eq(2L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        CursorPage<OrderSummaryDto> result = orderService.usersOrderHistory(1L, cursor, null);
+
+        // Assert
+        assertThat(result.getContent()).isEmpty();
+        verify(orderRepository, never()).findHistory(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should throw OrderException for a malformed history cursor")
+    void shouldThrowOrderException_WhenHistoryCursorInvalid() {
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.usersOrderHistory(1L, "not-a-cursor", null))
+                .isInstanceOf(OrderException.class)
+                .hasMessage("invalid cursor");
     }
 
     @Test
     @DisplayName("Should return empty list when user has no order history")
-    void shouldReturnEmptyList_WhenUserHasNoOrderHistory() {
+    void shouldReturnEmptyList_WhenUserHasNoOrderHistory() throws OrderException {
         // Arrange
-        when(orderRepository.findByUserId(999L)).thenReturn(Collections.emptyList());
+        when(orderRepository.findHistory(eq(999L), any(Pageable.class))).thenReturn(Collections.emptyList());
 
         // Act
-        List<Order> result = orderService.usersOrderHistory(999L);
+        CursorPage<OrderSummaryDto> result = orderService.usersOrderHistory(999L, null, null);
 
         // Assert
-        assertThat(result).isEmpty();
-        verify(orderRepository).findByUserId(999L);
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.isHasNext()).isFalse();
+        verifyNoInteractions(orderItemRepository, productRepository);
     }
 
     @Test
@@ -357,6 +459,28 @@ class OrderServiceImplementationTest {
         verify(orderRepository).findBySellerIdOrderByOrderDateDesc(999L);
     }
 
+    @Test
+    @DisplayName("Should pass seller inbox filters and cursor position to the repository")
+    void shouldFilterSellerInbox_WhenFiltersGiven() throws OrderException {
+        // Arrange
+        LocalDateTime last = LocalDateTime.now().minusDays(1);
+        LocalDateTime from = last.minusDays(30);
+        String cursor = new KeysetCursor("order_date", last.toString(), 5L).encode();
+        List<OrderStatus> statuses = List.of(OrderStatus.PLACED, OrderStatus.CONFIRMED);
+        when(orderRepository.findInbox(1L, statuses, PaymentStatus.COMPLETED, from, null, last, 5L, 21))
+                .thenReturn(List.of(summary(4L, last.minusHours(1))));
+        when(orderItemRepository.findLinesByOrderIds(List.of(4L))).thenReturn(Collections.emptyList());
+
+        // Act
+        CursorPage<OrderSummaryDto> result = orderService.getSellerInbox(1L, statuses,
+                PaymentStatus.COMPLETED, from, null, cursor, 20);
+
+        // Assert
+        assertThat(result.getContent()).extracting(OrderSummaryDto::getId).containsExactly(4L);
+        assertThat(result.isHasNext()).isFalse();
+        verify(orderRepository, never()).findBySellerIdOrderByOrderDateDesc(anyLong());
+    }
+
     @Test
     @DisplayName("Should update order status successfully when order exists")
     void shouldUpdateOrderStatus_WhenOrderExists() throws OrderException {
@@ -371,6 +495,25 @@ class OrderServiceImplementationTest {
         assertThat(result).isNotNull();
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.CONFIRMED);
         verify(orderRepository).findById(1L);
+        verify(sellerOrderCountService).adjust(1L, OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        verify(inventoryService, never()).release(anyCollection());
+        verify(orderRepository).save(testOrder);
+    }
+
+    @Test
+    @DisplayName("Should release reserved stock when the status is set to cancelled")
+    void shouldReleaseStock_WhenStatusUpdatedToCancelled() throws OrderException {
+        // Arrange
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+
+        // Act
+        Order result = orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
+
+        // Assert
+        assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(sellerOrderCountService).adjust(1L, OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(inventoryService).release(List.of(testOrder));
         verify(orderRepository).save(testOrder);
     }
 
@@ -400,6 +543,8 @@ class OrderServiceImplementationTest {
 
         // Assert
         verify(orderRepository).findById(1L);
+        verify(sellerOrderCountService).adjust(1L, OrderStatus.PENDING, null);
+        verify(inventoryService).release(List.of(testOrder));
         verify(orderRepository).deleteById(1L);
     }
 
@@ -432,6 +577,8 @@ class OrderServiceImplementationTest {
         assertThat(result).isNotNull();
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
         verify(orderRepository).findById(1L);
+        verify(inventoryService).release(List.of(testOrder));
+        verify(sellerOrderCountService).adjust(1L, OrderStatus.PENDING, OrderStatus.CANCELLED);
         verify(orderRepository).save(testOrder);
     }
 
@@ -491,7 +638,7 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should set payment status to PENDING when creating order")
-    void shouldSetPaymentStatusToPending_WhenCreatingOrder() {
+    void shouldSetPaymentStatusToPending_WhenCreatingOrder() throws OrderException {
         // Arrange
         when(addressRepository.save(any(Address.class))).thenReturn(testAddress);
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
@@ -502,7 +649,6 @@ class OrderServiceImplementationTest {
             }
             return order;
         });
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         orderService.createOrder(testUser, testAddress, testCart);
@@ -513,7 +659,7 @@ class OrderServiceImplementationTest {
 
     @Test
     @DisplayName("Should calculate total order price correctly from cart items")
-    void shouldCalculateTotalOrderPrice_CorrectlyFromCartItems() {
+    void shouldCalculateTotalOrderPrice_CorrectlyFromCartItems() throws OrderException {
         // Arrange
         CartItem additionalItem = new CartItem();
         additionalItem.setProduct(testProduct);
@@ -532,7 +678,6 @@ class OrderServiceImplementationTest {
             assertThat(order.getTotalItem()).isEqualTo(3); // 2 + 1
             return order;
         });
-        when(orderItemRepository.save(any(OrderItem.class))).thenReturn(testOrderItem);
 
         // Act
         orderService.createOrder(testUser, testAddress, testCart);
@@ -540,4 +685,9 @@ class OrderServiceImplementationTest {
         // Assert
         verify(orderRepository).save(any(Order.class));
     }
+
+    private OrderSummaryDto summary(Long id, LocalDateTime orderDate) {
+        return new OrderSummaryDto(id, "ORD" + id, 1L, OrderStatus.PENDING, PaymentStatus.PENDING,
+                1000, 800, 0, 2, orderDate, orderDate.plusDays(7));
+    }
 }
\ No newline at end of file
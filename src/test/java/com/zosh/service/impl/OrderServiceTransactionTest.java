@@ -0,0 +1,154 @@
+package com.zosh.service.impl;
+
+import com.zosh.domain.OrderStatus;
+import com.zosh.model.Order;
+import com.zosh.model.User;
+import com.zosh.repository.OrderRepository;
+import com.zosh.repository.UserRepository;
+import com.zosh.service.CartService;
+import com.zosh.service.InventoryService;
+import com.zosh.service.OrderItemService;
+import com.zosh.service.OrderService;
+import com.zosh.service.SellerOrderCountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the order status writes against an in-memory H2 database with real
+ * transactions. The seller order counts are moved by a @Modifying update
+ * that needs a transaction around it, which a mocked repository can't show.
+ * The test methods run without a transaction of their own, so every
+ * service call has to open one itself.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.auto_quote_keyword=true")
+@Import({OrderServiceImplementation.class, SellerOrderCountServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OrderServiceImplementation Transaction Tests")
+class OrderServiceTransactionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SellerOrderCountService sellerOrderCountService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private CartService cartService;
+
+    @MockBean
+    private OrderItemService orderItemService;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("buyer@example.com");
+        user.setFullName("Test Buyer");
+        user.setPassword("secret");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should move the seller count when the order status changes")
+    void shouldMoveSellerCount_WhenStatusUpdated() throws Exception {
+        // Arrange
+        Order order = saveOrder(101L);
+
+        // Act
+        Order updated = orderService.updateOrderStatus(order.getId(), OrderStatus.SHIPPED);
+
+        // Assert
+        assertThat(updated.getOrderStatus()).isEqualTo(OrderStatus.SHIPPED);
+        Map<OrderStatus, Long> counts = sellerOrderCountService.getCounts(101L);
+        assertThat(counts.get(OrderStatus.PENDING)).isZero();
+        assertThat(counts.get(OrderStatus.SHIPPED)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should delete the order and drop it from the seller count")
+    void shouldDropSellerCount_WhenOrderDeleted() throws Exception {
+        // Arrange
+        Order order = saveOrder(102L);
+
+        // Act
+        orderService.deleteOrder(order.getId());
+
+        // Assert
+        assertThat(orderRepository.findById(order.getId())).isEmpty();
+        assertThat(sellerOrderCountService.getCounts(102L).get(OrderStatus.PENDING)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cancel the order, release its stock and count it as cancelled")
+    void shouldCountCancelled_WhenOrderCancelled() throws Exception {
+        // Arrange
+        Order order = saveOrder(103L);
+
+        // Act
+        Order cancelled = orderService.cancelOrder(order.getId(), user);
+
+        // Assert
+        assertThat(cancelled.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(inventoryService).release(anyCollection());
+        Map<OrderStatus, Long> counts = sellerOrderCountService.getCounts(103L);
+        assertThat(counts.get(OrderStatus.PENDING)).isZero();
+        assertThat(counts.get(OrderStatus.CANCELLED)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should roll back the count and the status when the cancel fails")
+    void shouldRollBack_WhenCancelFails() {
+        // Arrange
+        Order order = saveOrder(104L);
+        doThrow(new IllegalStateException("stock release failed"))
+                .when(inventoryService).release(anyCollection());
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.cancelOrder(order.getId(), user))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getOrderStatus())
+                .isEqualTo(OrderStatus.PENDING);
+        Map<OrderStatus, Long> counts = sellerOrderCountService.getCounts(104L);
+        assertThat(counts.get(OrderStatus.PENDING)).isEqualTo(1L);
+        assertThat(counts.get(OrderStatus.CANCELLED)).isZero();
+    }
+
+    private Order saveOrder(Long sellerId) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setSellerId(sellerId);
+        order.setOrderStatus(OrderStatus.PENDING);
+        return orderRepository.save(order);
+    }
+}
@@ -0,0 +1,147 @@
+package com.zosh.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for Bm25Index: ranking, prefix matching of the last query
+ * term, replacing and removing documents, and paging over the hits.
+ */
+@DisplayName("Bm25Index Tests")
+class Bm25IndexTest {
+
+    private Bm25Index index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Bm25Index();
+        index.add(1L, "Red cotton shirt Men Clothing");
+        index.add(2L, "Blue denim jeans Men Clothing");
+        index.add(3L, "Red silk saree Women Clothing");
+        index.add(4L, "Red red red scarf Women Accessories");
+    }
+
+    @Test
+    @DisplayName("Should rank documents matching more query terms first")
+    void shouldRankDocumentsMatchingMoreTermsFirst() {
+        // Act
+        Bm25Index.Hits hits = index.search("red shirt", 0, 10);
+
+        // Assert
+        assertThat(hits.ids()).first().isEqualTo(1L);
+        assertThat(hits.ids()).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(hits.total()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should rank a rare term above a common one")
+    void shouldRankRareTermAboveCommonOne() {
+        // Act
+        Bm25Index.Hits hits = index.search("clothing denim", 0, 10);
+
+        // Assert
+        assertThat(hits.ids()).first().isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should score a repeated term higher than a single occurrence")
+    void shouldScoreRepeatedTermHigher() {
+        // Act
+        Bm25Index.Hits hits = index.search("red", 0, 10);
+
+        // Assert
+        assertThat(hits.ids()).first().isEqualTo(4L);
+    }
+
+    @Test
+    @DisplayName("Should match the last query term as a prefix")
+    void shouldMatchLastTermAsPrefix() {
+        // Act
+        Bm25Index.Hits partial = index.search("den", 0, 10);
+        Bm25Index.Hits earlierPartial = index.search("den jeans", 0, 10);
+
+        // Assert
+        assertThat(partial.ids()).containsExactly(2L);
+        // only the last term is expanded, "den" on its own is not a word
+        assertThat(earlierPartial.ids()).containsExactly(2L);
+        assertThat(index.search("den shirt", 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should replace a document when its id is added again")
+    void shouldReplaceDocument_WhenIdIsAddedAgain() {
+        // Act
+        index.add(1L, "Green linen kurta");
+
+        // Assert
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.search("shirt", 0, 10).ids()).isEmpty();
+        assertThat(index.search("kurta", 0, 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should drop a removed document from every posting")
+    void shouldDropRemovedDocument() {
+        // Act
+        index.remove(4L);
+        index.remove(99L);
+
+        // Assert
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.search("scarf", 0, 10).ids()).isEmpty();
+        assertThat(index.search("red", 0, 10).ids()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should page through hits and report the full total")
+    void shouldPageThroughHits() {
+        // Act
+        Bm25Index.Hits all = index.search("clothing", 0, 10);
+        Bm25Index.Hits first = index.search("clothing", 0, 2);
+        Bm25Index.Hits second = index.search("clothing", 2, 2);
+
+        // Assert
+        assertThat(first.total()).isEqualTo(3);
+        assertThat(second.total()).isEqualTo(3);
+        assertThat(first.ids()).containsExactlyElementsOf(all.ids().subList(0, 2));
+        assertThat(second.ids()).containsExactlyElementsOf(all.ids().subList(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should break score ties by newest id first")
+    void shouldBreakTiesByNewestId() {
+        // Arrange
+        Bm25Index tied = new Bm25Index();
+        tied.add(10L, "plain mug");
+        tied.add(11L, "plain mug");
+
+        // Act
+        Bm25Index.Hits hits = tied.search("mug", 0, 10);
+
+        // Assert
+        assertThat(hits.ids()).containsExactly(11L, 10L);
+    }
+
+    @Test
+    @DisplayName("Should return no hits for blank queries and empty documents")
+    void shouldReturnNoHits_ForBlankQueryOrEmptyDocument() {
+        // Arrange
+        index.add(5L, " -- ");
+
+        // Act & Assert
+        assertThat(index.search("  ", 0, 10).ids()).isEmpty();
+        assertThat(index.search("!!", 0, 10).total()).isZero();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should tokenize on non letters and digits, lower cased")
+    void shouldTokenizeOnNonAlphanumerics() {
+        // Act & Assert
+        assertThat(Bm25Index.tokenize("T-Shirt, Size XL/42")).containsExactly("t", "shirt", "size", "xl", "42");
+        assertThat(Bm25Index.tokenize(null)).isEmpty();
+    }
+}
@@ -0,0 +1,133 @@
+package com.zosh.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CompletionTrie: prefix lookups, weight ranking, the
+ * per-node top-N lists and edge splits of the radix tree.
+ */
+@DisplayName("CompletionTrie Tests")
+class CompletionTrieTest {
+
+    @Test
+    @DisplayName("Should complete a prefix with phrases ranked by weight")
+    void shouldCompletePrefix_RankedByWeight() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("shirt", 5);
+        trie.add("shoes", 9);
+        trie.add("shorts", 1);
+        trie.add("saree", 20);
+
+        // Act & Assert
+        assertThat(trie.complete("sh", 10)).containsExactly("shoes", "shirt", "shorts");
+        assertThat(trie.complete("s", 10)).containsExactly("saree", "shoes", "shirt", "shorts");
+        assertThat(trie.complete("sho", 10)).containsExactly("shoes", "shorts");
+    }
+
+    @Test
+    @DisplayName("Should keep only the top N phrases per prefix")
+    void shouldKeepOnlyTopN() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(2);
+        trie.add("cap", 1);
+        trie.add("cape", 3);
+        trie.add("capri", 2);
+
+        // Act & Assert
+        assertThat(trie.complete("ca", 10)).containsExactly("cape", "capri");
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should respect the requested limit")
+    void shouldRespectLimit() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("red shirt", 3);
+        trie.add("red saree", 2);
+        trie.add("red scarf", 1);
+
+        // Act & Assert
+        assertThat(trie.complete("red", 2)).containsExactly("red shirt", "red saree");
+    }
+
+    @Test
+    @DisplayName("Should add weights of a phrase added more than once")
+    void shouldAccumulateWeights_WhenPhraseAddedAgain() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("jeans", 4);
+        trie.add("jacket", 3);
+
+        // Act
+        trie.add("jacket", 3);
+
+        // Assert
+        assertThat(trie.complete("j", 10)).containsExactly("jacket", "jeans");
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should match case and whitespace insensitively and return the first display form")
+    void shouldNormalizeCaseAndWhitespace() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("  Men  Clothing", 2);
+        trie.add("men clothing", 2);
+
+        // Act & Assert
+        assertThat(trie.complete("MEN   c", 10)).containsExactly("Men  Clothing");
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should split an edge and keep both branches reachable")
+    void shouldSplitEdge_WhenPhrasesDiverge() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("kurta set", 1);
+        trie.add("kurti", 2);
+        trie.add("kurt", 3);
+
+        // Act & Assert
+        assertThat(trie.complete("kurt", 10)).containsExactly("kurt", "kurti", "kurta set");
+        assertThat(trie.complete("kurta", 10)).containsExactly("kurta set");
+        assertThat(trie.complete("kurti", 10)).containsExactly("kurti");
+        // a prefix that ends inside an edge still matches the whole edge
+        assertThat(trie.complete("kurta s", 10)).containsExactly("kurta set");
+    }
+
+    @Test
+    @DisplayName("Should return nothing for unknown or blank prefixes")
+    void shouldReturnNothing_ForUnknownOrBlankPrefix() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+        trie.add("watch", 1);
+
+        // Act & Assert
+        assertThat(trie.complete("wax", 10)).isEmpty();
+        assertThat(trie.complete("watches", 10)).isEmpty();
+        assertThat(trie.complete("   ", 10)).isEmpty();
+        assertThat(trie.complete(null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore blank phrases and non positive weights")
+    void shouldIgnoreBlankPhrasesAndNonPositiveWeights() {
+        // Arrange
+        CompletionTrie trie = new CompletionTrie(10);
+
+        // Act
+        trie.add(" ", 5);
+        trie.add("belt", 0);
+        trie.add("bag", -1);
+
+        // Assert
+        assertThat(trie.size()).isZero();
+        assertThat(trie.complete("b", 10)).isEmpty();
+    }
+}
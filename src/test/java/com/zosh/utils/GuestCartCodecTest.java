@@ -0,0 +1,119 @@
+package com.zosh.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for GuestCartCodec: round trips, rejection of tampered,
+ * foreign or oversized tokens and the line and quantity caps.
+ */
+@DisplayName("GuestCartCodec Tests")
+class GuestCartCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final GuestCartCodec codec = new GuestCartCodec(SECRET);
+
+    @Test
+    @DisplayName("Should decode the lines it encoded")
+    void shouldRoundTrip() {
+        // Arrange
+        List<GuestCartCodec.Line> lines = List.of(
+                new GuestCartCodec.Line(7, "M", 2),
+                new GuestCartCodec.Line(8, null, 1),
+                new GuestCartCodec.Line(9, "UK 8; wide,", 3));
+
+        // Act
+        List<GuestCartCodec.Line> decoded = codec.decode(codec.encode(lines));
+
+        // Assert
+        assertThat(decoded).containsExactlyElementsOf(lines);
+    }
+
+    @Test
+    @DisplayName("Should read a token with a modified payload as empty")
+    void shouldRejectTamperedPayload() {
+        // Arrange
+        String token = codec.encode(List.of(new GuestCartCodec.Line(7, "M", 2)));
+        String signature = token.substring(token.indexOf('.'));
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:7,99,M".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThat(codec.decode(forged + signature)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read a token with a modified signature as empty")
+    void shouldRejectTamperedSignature() {
+        // Arrange
+        String token = codec.encode(List.of(new GuestCartCodec.Line(7, "M", 2)));
+        // the first signature character, the last one partly encodes padding bits
+        int at = token.indexOf('.') + 1;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        // Act & Assert
+        assertThat(codec.decode(tampered)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read a token signed with another secret as empty")
+    void shouldRejectTokenFromAnotherSecret() {
+        // Arrange
+        GuestCartCodec other = new GuestCartCodec("another secret of enough length!".getBytes(StandardCharsets.UTF_8));
+        String token = other.encode(List.of(new GuestCartCodec.Line(7, "M", 2)));
+
+        // Act & Assert
+        assertThat(codec.decode(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read tokens over the size limit as empty even when correctly signed")
+    void shouldRejectOversizedToken() {
+        // Arrange
+        List<GuestCartCodec.Line> lines = new ArrayList<>();
+        for (int i = 0; i < GuestCartCodec.MAX_LINES; i++) {
+            lines.add(new GuestCartCodec.Line(1_000_000_000L + i, "x".repeat(100), 1));
+        }
+        String token = codec.encode(lines);
+
+        // Act & Assert
+        assertThat(token.length()).isGreaterThan(GuestCartCodec.MAX_TOKEN_LENGTH);
+        assertThat(codec.decode(token)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep at most MAX_LINES lines and cap quantities")
+    void shouldCapLinesAndQuantities() {
+        // Arrange
+        List<GuestCartCodec.Line> lines = new ArrayList<>();
+        for (int i = 1; i <= GuestCartCodec.MAX_LINES + 5; i++) {
+            lines.add(new GuestCartCodec.Line(i, null, 500));
+        }
+
+        // Act
+        List<GuestCartCodec.Line> decoded = codec.decode(codec.encode(lines));
+
+        // Assert
+        assertThat(decoded).hasSize(GuestCartCodec.MAX_LINES);
+        assertThat(decoded).allMatch(line -> line.quantity() == GuestCartCodec.MAX_QUANTITY);
+        assertThat(decoded.get(0).productId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should read blank, unsigned or malformed tokens as empty")
+    void shouldReturnEmpty_ForMalformedTokens() {
+        // Act & Assert
+        assertThat(codec.decode(null)).isEmpty();
+        assertThat(codec.decode("  ")).isEmpty();
+        assertThat(codec.decode("no-dot-here")).isEmpty();
+        assertThat(codec.decode("!!!.???")).isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+package com.zosh.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for LongLongHashMap: accumulation, growth past the initial
+ * capacity, colliding keys under linear probing and iteration.
+ */
+@DisplayName("LongLongHashMap Tests")
+class LongLongHashMapTest {
+
+    @Test
+    @DisplayName("Should add deltas to existing keys and return the new value")
+    void shouldAccumulateDeltas() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(4);
+
+        // Act & Assert
+        assertThat(map.addTo(7, 1)).isEqualTo(1);
+        assertThat(map.addTo(7, 2)).isEqualTo(3);
+        assertThat(map.addTo(-7, 5)).isEqualTo(5);
+        assertThat(map.get(7)).isEqualTo(3);
+        assertThat(map.get(-7)).isEqualTo(5);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should return zero for keys that were never added")
+    void shouldReturnZero_ForMissingKeys() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(4);
+        map.addTo(1, 1);
+
+        // Act & Assert
+        assertThat(map.get(2)).isZero();
+        assertThat(map.get(0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject the reserved key 0")
+    void shouldRejectReservedKey() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(4);
+
+        // Act & Assert
+        assertThatThrownBy(() -> map.addTo(0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep every entry when growing well past the initial capacity")
+    void shouldKeepEntries_WhenGrowing() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(1);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 50_000; i++) {
+            // a narrow key range forces repeats as well as new keys
+            long key = 1 + random.nextInt(20_000);
+            long delta = 1 + random.nextInt(5);
+            map.addTo(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+
+        // Assert
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep colliding keys apart under linear probing")
+    void shouldKeepCollidingKeysApart() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(8);
+        // packed pair keys share their low bits, the mix has to spread them
+        long[] keys = new long[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) (i + 1) << 32) | 1;
+        }
+
+        // Act
+        for (int i = 0; i < keys.length; i++) {
+            map.addTo(keys[i], i + 1);
+        }
+
+        // Assert
+        assertThat(map.size()).isEqualTo(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(map.get(keys[i])).isEqualTo(i + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should visit every entry exactly once")
+    void shouldVisitEveryEntryOnce() {
+        // Arrange
+        LongLongHashMap map = new LongLongHashMap(2);
+        for (long key = 1; key <= 100; key++) {
+            map.addTo(key, key * 10);
+        }
+        Map<Long, Long> visited = new HashMap<>();
+
+        // Act
+        map.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+
+        // Assert
+        assertThat(visited).hasSize(100);
+        assertThat(visited.get(42L)).isEqualTo(420L);
+    }
+}
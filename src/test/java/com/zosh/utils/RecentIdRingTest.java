@@ -0,0 +1,89 @@
+package com.zosh.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for RecentIdRing: newest-first reads, wraparound once the
+ * ring is full, hidden ids and the id displaced by each push.
+ */
+@DisplayName("RecentIdRing Tests")
+class RecentIdRingTest {
+
+    @Test
+    @DisplayName("Should return ids newest first while the ring is filling")
+    void shouldReturnNewestFirst_WhileFilling() {
+        // Arrange
+        RecentIdRing ring = new RecentIdRing(5);
+        ring.push(1);
+        ring.push(2);
+        ring.push(3);
+
+        // Act & Assert
+        assertThat(ring.newest(10, id -> false)).containsExactly(3L, 2L, 1L);
+        assertThat(ring.newest(2, id -> false)).containsExactly(3L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should keep only the last capacity ids after wrapping around")
+    void shouldKeepLastIds_AfterWraparound() {
+        // Arrange
+        RecentIdRing ring = new RecentIdRing(3);
+
+        // Act
+        for (long id = 1; id <= 7; id++) {
+            ring.push(id);
+        }
+
+        // Assert
+        assertThat(ring.newest(10, id -> false)).containsExactly(7L, 6L, 5L);
+        assertThat(ring.contains(5)).isTrue();
+        assertThat(ring.contains(4)).isFalse();
+        assertThat(ring.contains(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report the id that falls off on each push once full")
+    void shouldReturnDisplacedId_OncePushWraps() {
+        // Arrange
+        RecentIdRing ring = new RecentIdRing(2);
+
+        // Act & Assert
+        assertThat(ring.push(10)).isZero();
+        assertThat(ring.push(11)).isZero();
+        assertThat(ring.push(12)).isEqualTo(10L);
+        assertThat(ring.push(13)).isEqualTo(11L);
+        assertThat(ring.push(14)).isEqualTo(12L);
+    }
+
+    @Test
+    @DisplayName("Should skip hidden ids without shrinking below the limit")
+    void shouldSkipHiddenIds() {
+        // Arrange
+        RecentIdRing ring = new RecentIdRing(5);
+        for (long id = 1; id <= 5; id++) {
+            ring.push(id);
+        }
+
+        // Act
+        List<Long> newest = ring.newest(3, id -> id == 5 || id == 3);
+
+        // Assert
+        assertThat(newest).containsExactly(4L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should return an empty list for an empty ring")
+    void shouldReturnEmpty_ForEmptyRing() {
+        // Arrange
+        RecentIdRing ring = new RecentIdRing(4);
+
+        // Act & Assert
+        assertThat(ring.newest(10, id -> false)).isEmpty();
+        assertThat(ring.contains(0)).isFalse();
+    }
+}